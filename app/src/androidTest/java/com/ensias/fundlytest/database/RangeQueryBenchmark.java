@@ -0,0 +1,159 @@
+package com.ensias.fundlytest.database;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.ensias.fundlytest.core.DateKeys;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.models.Transaction;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+import io.realm.RealmQuery;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Before/after timing of DataManager.rangeQuery on a device: the plain userId + date
+ * predicates it used to be, against the IN(monthKey) narrowing it is now, over a
+ * week, a month and a year of a year-long history, at 10k, 100k and 1M rows.
+ *
+ *   ./gradlew :app:connectedAndroidTest \
+ *       -Pandroid.testInstrumentationRunnerArguments.class=com.ensias.fundlytest.database.RangeQueryBenchmark \
+ *       -Pandroid.testInstrumentationRunnerArguments.rangeRows=10000,100000
+ *
+ * Medians are logged under the "RangeQueryBenchmark" tag and reported as
+ * instrumentation status. 1M rows needs a device with a few hundred MB to spare.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RangeQueryBenchmark {
+
+    private static final String TAG = "RangeQueryBenchmark";
+    private static final String USER_ID = "bench-user";
+    private static final String OTHER_USER_ID = "bench-other";
+    private static final long SEED = 42L;
+    private static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(365);
+    private static final int WARMUP = 3;
+    private static final int RUNS = 15;
+    private static final int INSERT_CHUNK = 10_000;
+
+    private Realm realm;
+    private long now;
+
+    @Before
+    public void setUp() {
+        Realm.init(InstrumentationRegistry.getInstrumentation().getTargetContext());
+        RealmConfiguration config = new RealmConfiguration.Builder()
+                .name("range-query-bench.realm")
+                .inMemory()
+                .allowWritesOnUiThread(true)
+                .build();
+        realm = Realm.getInstance(config);
+
+        Calendar cal = Calendar.getInstance();
+        cal.set(2025, Calendar.JUNE, 15, 12, 0, 0);
+        now = cal.getTimeInMillis();
+    }
+
+    @After
+    public void tearDown() {
+        if (realm != null) {
+            realm.executeTransaction(r -> r.deleteAll());
+            realm.close();
+        }
+    }
+
+    @Test
+    public void rangeQueryBeforeAndAfter() {
+        String arg = InstrumentationRegistry.getArguments().getString("rangeRows", "10000,100000,1000000");
+        int loaded = 0;
+        for (String part : arg.split(",")) {
+            int rows = Integer.parseInt(part.trim());
+            loaded = fill(loaded, rows);
+            measure(rows, "week", now - TimeUnit.DAYS.toMillis(7));
+            measure(rows, "month", now - TimeUnit.DAYS.toMillis(30));
+            measure(rows, "year", now - SPAN_MILLIS);
+        }
+    }
+
+    private void measure(int rows, String window, long fromMillis) {
+        Date start = new Date(fromMillis);
+        Date end = new Date(now);
+
+        long before = dateOnly(start, end).count();
+        long after = DataManager.rangeQuery(realm, USER_ID, start, end).count();
+        assertEquals("row sets differ for " + window, before, after);
+
+        long beforeNanos = median(() -> dateOnly(start, end).findAll().size());
+        long afterNanos = median(() -> DataManager.rangeQuery(realm, USER_ID, start, end).findAll().size());
+
+        String line = String.format(Locale.ROOT,
+                "rows=%d window=%s matches=%d dateOnly=%.3fms monthKeyIn=%.3fms",
+                rows, window, after, beforeNanos / 1e6, afterNanos / 1e6);
+        Log.i(TAG, line);
+        Bundle status = new Bundle();
+        status.putString(TAG, line);
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, status);
+    }
+
+    /** The query before the monthKey narrowing. */
+    private RealmQuery<Transaction> dateOnly(Date start, Date end) {
+        return realm.where(Transaction.class)
+                .equalTo("userId", USER_ID)
+                .greaterThanOrEqualTo("date", start)
+                .lessThan("date", end);
+    }
+
+    private static long median(Runnable query) {
+        for (int i = 0; i < WARMUP; i++) query.run();
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long t0 = System.nanoTime();
+            query.run();
+            nanos[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2];
+    }
+
+    /**
+     * Grows the table from {@code from} to {@code to} rows; one in ten belongs to
+     * another user so the userId index has something to skip.
+     */
+    private int fill(int from, int to) {
+        Random random = new Random(SEED + from);
+        for (int chunkStart = from; chunkStart < to; chunkStart += INSERT_CHUNK) {
+            int chunkEnd = Math.min(to, chunkStart + INSERT_CHUNK);
+            int first = chunkStart;
+            realm.executeTransaction(r -> {
+                for (int i = first; i < chunkEnd; i++) {
+                    Transaction t = r.createObject(Transaction.class, "tx-" + i);
+                    Date date = new Date(now - (long) (random.nextDouble() * SPAN_MILLIS));
+                    t.setUserId(random.nextInt(10) == 0 ? OTHER_USER_ID : USER_ID);
+                    t.setAmountMinor(100 + random.nextInt(50_000));
+                    t.setCurrencyScale(Money.DEFAULT_SCALE);
+                    t.setCategoryId("cat-" + random.nextInt(20));
+                    t.setType(random.nextInt(5) == 0 ? "income" : "expense");
+                    t.setDate(date);
+                    t.setMonthKey(DateKeys.monthKey(date));
+                }
+            });
+        }
+        return to;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ensias.fundlytest;
+
+import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.database.FundlyMigration;
+import com.ensias.fundlytest.utils.StartupTrace;
+import com.google.firebase.FirebaseApp;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import io.realm.Realm;
+import io.realm.RealmConfiguration;
+
+/**
+ * Application start pipeline. Only the Realm configuration is set on the main
+ * thread; opening (and migrating) the file and initialising Firebase run in the
+ * background, and screens register with whenDone for the stage they need:
+ *
+ *   DATABASE        file opened on the Realm worker, migrations and seeding done
+ *   CATEGORY_CACHE  CategoryCache listening, on the main thread after DATABASE
+ *   FIREBASE        FirebaseApp initialised on the io thread (the init provider
+ *                   is removed from the manifest)
+ */
+public final class AppInitializer {
+
+    public enum Stage { DATABASE, CATEGORY_CACHE, FIREBASE }
+
+    /** The work behind each stage; tests swap it for their own. */
+    interface Steps {
+        /** Main thread. */
+        void configureDatabase(Application app);
+
+        /** Realm worker. */
+        void openDatabase();
+
+        /** Main thread. */
+        void startCategoryCache();
+
+        /** io thread. */
+        void initFirebase(Application app);
+    }
+
+    private static final AppInitializer INSTANCE = new AppInitializer(new DefaultSteps());
+
+    private final Steps steps;
+
+    private final Map<Stage, CountDownLatch> done = new EnumMap<>(Stage.class);
+    private final Map<Stage, List<Runnable>> waiting = new EnumMap<>(Stage.class);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final StartupTrace trace = new StartupTrace();
+    private boolean started;
+    private boolean traceDumped;
+
+    AppInitializer(Steps steps) {
+        this.steps = steps;
+        for (Stage stage : Stage.values()) {
+            done.put(stage, new CountDownLatch(1));
+            waiting.put(stage, new ArrayList<>());
+        }
+    }
+
+    public static AppInitializer getInstance() {
+        return INSTANCE;
+    }
+
+    /** Called once from Application.onCreate, on the main thread. */
+    public void start(Application app) {
+        if (started) return;
+        started = true;
+
+        trace.stage("realm-config", () -> steps.configureDatabase(app));
+
+        // Queued first on the worker, so every DataManager task runs after it
+        AsyncDataManager async = AsyncDataManager.getInstance();
+        async.run(() -> {
+            trace.stage("realm-open", steps::openDatabase);
+            markDone(Stage.DATABASE);
+
+            async.postToMain(() -> {
+                trace.stage("category-cache", steps::startCategoryCache);
+                markDone(Stage.CATEGORY_CACHE);
+            });
+        });
+
+        async.runDetached(() -> {
+            trace.stage("firebase", () -> steps.initFirebase(app));
+            markDone(Stage.FIREBASE);
+        });
+    }
+
+    private void markDone(Stage stage) {
+        List<Runnable> callbacks;
+        boolean dump = false;
+        synchronized (this) {
+            done.get(stage).countDown();
+            callbacks = new ArrayList<>(waiting.get(stage));
+            waiting.get(stage).clear();
+            if (!traceDumped && allDone()) {
+                traceDumped = true;
+                dump = true;
+            }
+        }
+        for (Runnable callback : callbacks) mainHandler.post(callback);
+
+        if (dump) trace.dump();
+    }
+
+    private boolean allDone() {
+        for (CountDownLatch latch : done.values()) {
+            if (latch.getCount() > 0) return false;
+        }
+        return true;
+    }
+
+    public boolean isDone(Stage stage) {
+        return done.get(stage).getCount() == 0;
+    }
+
+    /** Runs callback on the main thread once the stage is done (right away if it already is). */
+    public void whenDone(Stage stage, Runnable callback) {
+        synchronized (this) {
+            if (!isDone(stage)) {
+                waiting.get(stage).add(callback);
+                return;
+            }
+        }
+        if (Looper.myLooper() == Looper.getMainLooper()) callback.run();
+        else mainHandler.post(callback);
+    }
+
+    /**
+     * Blocks until the stage is done. For background threads only: on a cold start
+     * DATABASE includes migrations, so screens use {@link #whenDone} instead.
+     * Never call it for CATEGORY_CACHE from the main thread.
+     */
+    public void await(Stage stage) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.get(stage).await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    StartupTrace getTrace() {
+        return trace;
+    }
+
+    private static final class DefaultSteps implements Steps {
+        @Override
+        public void configureDatabase(Application app) {
+            Realm.init(app);
+            RealmConfiguration config = new RealmConfiguration.Builder()
+                    .name("fundly.realm")
+                    .schemaVersion(FundlyMigration.SCHEMA_VERSION)
+                    .migration(new FundlyMigration())
+                    .initialData(FundlyApplication::seedDefaultCategories)
+                    .allowWritesOnUiThread(false)
+                    .build();
+            Realm.setDefaultConfiguration(config);
+        }
+
+        @Override
+        public void openDatabase() {
+            Realm.getDefaultInstance().close();
+        }
+
+        @Override
+        public void startCategoryCache() {
+            CategoryCache.getInstance().start();
+        }
+
+        @Override
+        public void initFirebase(Application app) {
+            FirebaseApp.initializeApp(app);
+        }
+    }
+}
@@ -11,11 +11,12 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.ensias.fundlytest.FundlyApplication;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.adapters.CategoryAdapter;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Category;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.utils.IconRegistry;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.android.material.tabs.TabLayout;
 
@@ -25,12 +26,12 @@ import yuku.ambilwarna.AmbilWarnaDialog;
 
 public class AddCategoryActivity extends AppCompatActivity {
 
-    private DataManager dataManager;
     private SessionManager sessionManager;
     private String currentUserId;
 
     private CategoryAdapter adapter;
-    private final List<Category> displayedCategories = new ArrayList<>();
+    // The cache rebuilds after every commit, so writes below need no manual reload
+    private final Runnable onCategoriesChanged = this::loadCategories;
     private String currentType = "expense";
     private TabLayout tabLayout;
 
@@ -48,21 +49,19 @@ public class AddCategoryActivity extends AppCompatActivity {
             return;
         }
 
-        dataManager = new DataManager();
-
         setupViews();
+        CategoryCache.getInstance().addListener(onCategoriesChanged);
         loadCategories();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (dataManager != null) dataManager.close();
+        CategoryCache.getInstance().removeListener(onCategoriesChanged);
     }
 
-    private boolean isDefaultCategory(Category c) {
-        String uid = c.getUserId();
-        return uid == null || FundlyApplication.DEFAULT_USER_ID.equals(uid);
+    private boolean isDefaultCategory(CategoryInfo c) {
+        return c.isDefault();
     }
 
     private void setupViews() {
@@ -78,9 +77,9 @@ public class AddCategoryActivity extends AppCompatActivity {
         RecyclerView recyclerView = findViewById(R.id.categoryRecyclerView);
         if (recyclerView != null) {
             recyclerView.setLayoutManager(new LinearLayoutManager(this));
-            adapter = new CategoryAdapter(displayedCategories, new CategoryAdapter.CategoryListener() {
-                @Override public void onDelete(Category category) { showDeleteConfirmation(category); }
-                @Override public void onEdit(Category category) { showEditCategoryDialog(category); }
+            adapter = new CategoryAdapter(new CategoryAdapter.CategoryListener() {
+                @Override public void onDelete(CategoryInfo category) { showDeleteConfirmation(category); }
+                @Override public void onEdit(CategoryInfo category) { showEditCategoryDialog(category); }
             });
             recyclerView.setAdapter(adapter);
         }
@@ -104,9 +103,10 @@ public class AddCategoryActivity extends AppCompatActivity {
     }
 
     private void loadCategories() {
-        displayedCategories.clear();
-        displayedCategories.addAll(dataManager.getCategoriesByType(currentUserId, currentType));
-        if (adapter != null) adapter.notifyDataSetChanged();
+        if (isDestroyed()) return;
+        if (adapter == null) return;
+        // The cache hands out a new list whenever the categories change, which the adapter diffs
+        adapter.updateCategories(CategoryCache.getInstance().getEffective(currentUserId, currentType));
     }
 
     private void refreshCategories() {
@@ -114,7 +114,7 @@ public class AddCategoryActivity extends AppCompatActivity {
         Toast.makeText(this, "Categories refreshed", Toast.LENGTH_SHORT).show();
     }
 
-    private void showDeleteConfirmation(Category category) {
+    private void showDeleteConfirmation(CategoryInfo category) {
         if (isDefaultCategory(category)) {
             Toast.makeText(this, "Default categories cannot be deleted", Toast.LENGTH_SHORT).show();
             return;
@@ -161,26 +161,22 @@ public class AddCategoryActivity extends AppCompatActivity {
                     return;
                 }
 
-                dataManager.addCategory(
-                        UUID.randomUUID().toString(),
-                        currentUserId,
-                        name,
-                        currentType,
-                        selectedIcon[0],
-                        selectedColor[0],
-                        true
-                );
+                String categoryId = UUID.randomUUID().toString();
+                String type = currentType;
+                String iconName = selectedIcon[0];
+                int color = selectedColor[0];
 
-                dialog.dismiss();
-                loadCategories();
-                Toast.makeText(this, "Category added", Toast.LENGTH_SHORT).show();
+                btnSave.setEnabled(false);
+                AsyncDataManager.getInstance().execute(
+                        dm -> dm.addCategory(categoryId, currentUserId, name, type, iconName, color, true),
+                        saveCallback(dialog, btnSave, "Category added"));
             });
         }
 
         dialog.show();
     }
 
-    private void showEditCategoryDialog(Category categoryToEdit) {
+    private void showEditCategoryDialog(CategoryInfo categoryToEdit) {
         if (isDefaultCategory(categoryToEdit)) {
             Toast.makeText(this, "Default categories cannot be edited", Toast.LENGTH_SHORT).show();
             return;
@@ -229,11 +225,14 @@ public class AddCategoryActivity extends AppCompatActivity {
                     return;
                 }
 
-                dataManager.updateCategory(categoryToEdit.getId(), name, selectedIcon[0], selectedColor[0]);
+                String categoryId = categoryToEdit.getId();
+                String iconName = selectedIcon[0];
+                int color = selectedColor[0];
 
-                dialog.dismiss();
-                loadCategories();
-                Toast.makeText(this, "Category updated", Toast.LENGTH_SHORT).show();
+                btnSave.setEnabled(false);
+                AsyncDataManager.getInstance().execute(
+                        dm -> dm.updateCategory(categoryId, name, iconName, color),
+                        saveCallback(dialog, btnSave, "Category updated"));
             });
         }
 
@@ -276,7 +275,7 @@ public class AddCategoryActivity extends AppCompatActivity {
         }
     }
 
-    private void deleteCategory(Category category) {
+    private void deleteCategory(CategoryInfo category) {
         if (isDefaultCategory(category)) {
             Toast.makeText(this, "Default categories cannot be deleted", Toast.LENGTH_SHORT).show();
             return;
@@ -287,9 +286,38 @@ public class AddCategoryActivity extends AppCompatActivity {
             return;
         }
 
-        dataManager.deleteCategory(category.getId());
-        loadCategories();
-        Toast.makeText(this, "Category deleted", Toast.LENGTH_SHORT).show();
+        String categoryId = category.getId();
+        AsyncDataManager.getInstance().execute(dm -> dm.deleteCategory(categoryId),
+                new AsyncDataManager.Callback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        Toast.makeText(AddCategoryActivity.this, "Category deleted", Toast.LENGTH_SHORT).show();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        Toast.makeText(AddCategoryActivity.this, "Could not delete: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                    }
+                });
+    }
+
+    /** Closes the dialog once the write is committed; on failure keeps it open to retry. */
+    private AsyncDataManager.Callback<Void> saveCallback(AlertDialog dialog, Button btnSave, String doneMessage) {
+        return new AsyncDataManager.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                dialog.dismiss();
+                Toast.makeText(AddCategoryActivity.this, doneMessage, Toast.LENGTH_SHORT).show();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                btnSave.setEnabled(true);
+                Toast.makeText(AddCategoryActivity.this, "Could not save: " + e.getMessage(),
+                        Toast.LENGTH_LONG).show();
+            }
+        };
     }
 
     // --- Icon grid unchanged ---
@@ -311,9 +339,7 @@ public class AddCategoryActivity extends AppCompatActivity {
         for (String icon : icons) {
             ImageButton iconBtn = new ImageButton(this);
 
-            int resId = getResources().getIdentifier(icon, "drawable", getPackageName());
-            if (resId == 0) resId = android.R.drawable.ic_menu_add;
-            iconBtn.setImageResource(resId);
+            iconBtn.setImageResource(IconRegistry.resolve(icon));
 
             iconBtn.setBackgroundResource(R.drawable.button_secondary);
             iconBtn.setScaleType(ImageView.ScaleType.CENTER_INSIDE);
@@ -6,10 +6,13 @@ import android.os.Bundle;
 import android.text.TextUtils;
 import android.widget.*;
 import androidx.appcompat.app.AppCompatActivity;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Category;
-import com.ensias.fundlytest.models.Transaction;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.android.material.tabs.TabLayout;
 import java.text.SimpleDateFormat;
@@ -17,7 +20,6 @@ import java.util.*;
 
 public class AddTransactionActivity extends AppCompatActivity {
 
-    private DataManager dataManager;
     private SessionManager sessionManager;
     private String currentUserId;
 
@@ -30,7 +32,8 @@ public class AddTransactionActivity extends AppCompatActivity {
     private EditText noteInput;
     private Button btnSave;
 
-    private List<Category> categories = new ArrayList<>();
+    private final List<CategoryInfo> categories = new ArrayList<>();
+    private final Runnable onCategoriesChanged = this::loadCategories;
     private ArrayAdapter<String> spinnerAdapter;
     private String currentType = "expense";
     private Date selectedDate = new Date();
@@ -55,8 +58,6 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        dataManager = new DataManager();
-
         // Check if we're editing an existing transaction
         Intent intent = getIntent();
         if (intent != null && intent.hasExtra("transaction_id") && intent.getBooleanExtra("is_edit", false)) {
@@ -65,13 +66,24 @@ public class AddTransactionActivity extends AppCompatActivity {
         }
 
         setupViews();
+        CategoryCache.getInstance().addListener(onCategoriesChanged);
         setupTabs();
         setupDatePicker();
         setupActions();
 
+        // Saving waits for the database, which may still be opening on a cold start
+        btnSave.setEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.DATABASE, this::onDatabaseReady);
+    }
+
+    private void onDatabaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+
         // If editing, load transaction data
         if (isEditMode && transactionIdToEdit != null) {
             loadTransactionForEditing();
+        } else {
+            btnSave.setEnabled(true);
         }
     }
 
@@ -84,9 +96,7 @@ public class AddTransactionActivity extends AppCompatActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (dataManager != null) {
-            dataManager.close();
-        }
+        CategoryCache.getInstance().removeListener(onCategoriesChanged);
     }
 
     private void setupViews() {
@@ -132,8 +142,27 @@ public class AddTransactionActivity extends AppCompatActivity {
     }
 
     private void loadTransactionForEditing() {
-        Transaction transactionToEdit = dataManager.getTransactionById(transactionIdToEdit);
+        // The form stays disabled until the row is in
+        AsyncDataManager.getInstance().submit(dm -> dm.getTransactionInfo(transactionIdToEdit),
+                new AsyncDataManager.Callback<TransactionInfo>() {
+                    @Override
+                    public void onResult(TransactionInfo transaction) {
+                        if (isFinishing() || isDestroyed()) return;
+                        btnSave.setEnabled(true);
+                        showTransactionForEditing(transaction);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (isFinishing() || isDestroyed()) return;
+                        Toast.makeText(AddTransactionActivity.this, "Could not load: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                        finish();
+                    }
+                });
+    }
 
+    private void showTransactionForEditing(TransactionInfo transactionToEdit) {
         if (transactionToEdit != null) {
             // Verify this transaction belongs to current user
             if (!currentUserId.equals(transactionToEdit.getUserId())) {
@@ -165,7 +194,7 @@ public class AddTransactionActivity extends AppCompatActivity {
                     spinnerCategory.setSelection(categoryPosition);
                 }
 
-                etAmount.setText(String.valueOf(transactionToEdit.getAmount()));
+                etAmount.setText(Money.toPlainString(transactionToEdit.getAmountMinor(), Money.DEFAULT_SCALE));
 
                 if (transactionToEdit.getDate() != null) {
                     selectedDate = transactionToEdit.getDate();
@@ -220,13 +249,13 @@ public class AddTransactionActivity extends AppCompatActivity {
     private void loadCategories() {
         categories.clear();
         // FILTER BY USER ID
-        categories.addAll(dataManager.getCategoriesByType(currentUserId, currentType));
+        categories.addAll(CategoryCache.getInstance().getEffective(currentUserId, currentType));
         updateSpinner();
     }
 
     private void updateSpinner() {
         List<String> names = new ArrayList<>();
-        for (Category c : categories) {
+        for (CategoryInfo c : categories) {
             names.add(c.getName());
         }
 
@@ -251,7 +280,7 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        Category selectedCategory = categories.get(pos);
+        CategoryInfo selectedCategory = categories.get(pos);
 
         String amountStr = etAmount.getText().toString().trim();
         if (TextUtils.isEmpty(amountStr)) {
@@ -259,52 +288,60 @@ public class AddTransactionActivity extends AppCompatActivity {
             return;
         }
 
-        double amount;
+        long amountMinor;
         try {
-            amount = Double.parseDouble(amountStr);
+            amountMinor = Money.parseMinor(amountStr);
         } catch (Exception e) {
             Toast.makeText(this, "Invalid amount", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        if (amount == 0) {
+        if (amountMinor == 0) {
             Toast.makeText(this, "Amount cannot be 0", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        String note = noteInput.getText().toString().trim();
-        if (TextUtils.isEmpty(note)) {
-            note = selectedCategory.getName() + " transaction";
+        String noteText = noteInput.getText().toString().trim();
+        if (TextUtils.isEmpty(noteText)) {
+            noteText = selectedCategory.getName() + " transaction";
         }
 
-        if (isEditMode && transactionIdToEdit != null) {
-            // Update existing transaction
-            dataManager.updateTransaction(
-                    transactionIdToEdit,
-                    amount,
-                    selectedCategory.getId(),
-                    currentType,
-                    note,
-                    selectedDate,
-                    selectedCategory.getColor(),
-                    selectedCategory.getIconName()
-            );
-        } else {
-            // Add new transaction WITH USER ID
-            dataManager.addTransaction(
-                    UUID.randomUUID().toString(),
-                    currentUserId,  // USER ID
-                    amount,
-                    selectedCategory.getId(),
-                    currentType,
-                    note,
-                    selectedDate,
-                    selectedCategory.getColor(),
-                    selectedCategory.getIconName()
-            );
-        }
+        // Capture plain values, the write runs on the Realm worker
+        final String note = noteText;
+        final String categoryId = selectedCategory.getId();
+        final int color = selectedCategory.getColor();
+        final String iconName = selectedCategory.getIconName();
+        final String type = currentType;
+        final Date date = selectedDate;
+        final boolean updating = isEditMode && transactionIdToEdit != null;
+        final String transactionId = updating ? transactionIdToEdit : UUID.randomUUID().toString();
+
+        btnSave.setEnabled(false);
+        AsyncDataManager.getInstance().execute(dm -> {
+            if (updating) {
+                // Update existing transaction
+                dm.updateTransaction(transactionId, amountMinor, categoryId, type, note, date, color, iconName);
+            } else {
+                // Add new transaction WITH USER ID
+                dm.addTransaction(transactionId, currentUserId, amountMinor, categoryId, type, note, date,
+                        color, iconName);
+            }
+        }, new AsyncDataManager.Callback<Void>() {
+            @Override
+            public void onResult(Void result) {
+                if (isDestroyed()) return;
+                Toast.makeText(AddTransactionActivity.this, updating ? "Updated ✅" : "Saved ✅",
+                        Toast.LENGTH_SHORT).show();
+                finish();
+            }
 
-        Toast.makeText(this, isEditMode ? "Updated ✅" : "Saved ✅", Toast.LENGTH_SHORT).show();
-        finish();
+            @Override
+            public void onError(Exception e) {
+                if (isDestroyed()) return;
+                btnSave.setEnabled(true);
+                Toast.makeText(AddTransactionActivity.this, "Could not save: " + e.getMessage(),
+                        Toast.LENGTH_LONG).show();
+            }
+        });
     }
 }
\ No newline at end of file
@@ -8,11 +8,14 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.adapters.TransactionAdapter;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Transaction;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.TransactionSnapshots;
 import com.google.android.material.imageview.ShapeableImageView;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
 import com.ensias.fundlytest.utils.SessionManager;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
@@ -30,12 +33,12 @@ public class HomeActivity extends BaseActivity {
     private TextView tvViewAll;
     private RecyclerView rvTransactions;
     // Data
-    private DataManager dataManager;
     private TransactionAdapter adapter;
-    private List<Transaction> recentTransactions;
+    private List<TransactionInfo> recentTransactions;
     private SessionManager sessionManager;
     private String currentUserId;
     private TextView tvWelcomeTitle;
+    private boolean databaseReady;
 
     // Formatage
     private final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
@@ -49,8 +52,6 @@ public class HomeActivity extends BaseActivity {
         LayoutInflater inflater = LayoutInflater.from(this);
         inflater.inflate(R.layout.activity_home, container, true);
 
-        // Initialiser DataManager (Realm)
-        dataManager = new DataManager();
         recentTransactions = new ArrayList<>();
         sessionManager = new SessionManager(this);
         currentUserId = sessionManager.getUserId();
@@ -66,14 +67,26 @@ public class HomeActivity extends BaseActivity {
         // Configurer RecyclerView
         setupRecyclerView();
 
-        // Charger les données
-        loadData();
-
         // Configurer les listeners
         setupListeners();
 
         // Mettre en surbrillance l'onglet Home
         highlightCurrentTab();
+
+        // The database may still be opening on a cold start: show placeholders, load once it is
+        showLoading();
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.DATABASE, this::onDatabaseReady);
+    }
+
+    private void onDatabaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+        databaseReady = true;
+
+        // Period totals come from the snapshot once it is built; Realm until then
+        TransactionSnapshots.getInstance().warmUp(currentUserId);
+
+        // Charger les données
+        loadData();
     }
 
     @Override
@@ -81,17 +94,14 @@ public class HomeActivity extends BaseActivity {
         super.onResume();
         // Recharger les données quand on revient sur la page
         updateWelcomeTitle();
-        loadData();
+        if (databaseReady) loadData();
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (dataManager != null) {
-            dataManager.close();
-        }
         if (adapter != null) {
-            adapter.closeDataManager();
+            adapter.release();
         }
     }
 
@@ -107,12 +117,12 @@ public class HomeActivity extends BaseActivity {
 
     private void setupRecyclerView() {
         // Initialiser l'adaptateur avec la liste vide et un listener
-        adapter = new TransactionAdapter(recentTransactions, new TransactionAdapter.OnTransactionClickListener() {
+        adapter = new TransactionAdapter(new TransactionAdapter.OnTransactionClickListener() {
             @Override
-            public void onTransactionClick(Transaction transaction) {
+            public void onTransactionClick(String transactionId) {
                 // Ouvrir les détails de la transaction
                 Intent intent = new Intent(HomeActivity.this, TransactionDetailActivity.class);
-                intent.putExtra("transaction_id", transaction.getId());
+                intent.putExtra("transaction_id", transactionId);
                 startActivity(intent);
             }
         });
@@ -186,11 +196,14 @@ public class HomeActivity extends BaseActivity {
         Date startDate = currentMonthDates[0];
         Date endDate = currentMonthDates[1];
 
-        double totalIncome = dataManager.getTotalIncome(currentUserId, startDate, endDate);
-        double totalExpenses = dataManager.getTotalExpenses(currentUserId, startDate, endDate);
-        double balance = totalIncome - totalExpenses;
-
-        updateBalanceCard(balance, totalIncome, totalExpenses);
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.getPeriodSummary(currentUserId, startDate, endDate),
+                summary -> {
+                    if (isFinishing() || isDestroyed()) return;
+                    updateBalanceCard(Money.toMajor(summary.getBalance()),
+                            Money.toMajor(summary.getTotalIncome()),
+                            Money.toMajor(summary.getTotalExpenses()));
+                });
 
         loadRecentTransactions(startDate, endDate);
     }
@@ -214,6 +227,12 @@ public class HomeActivity extends BaseActivity {
         return new Date[]{startDate, endDate};
     }
 
+    private void showLoading() {
+        if (tvBalanceAmount != null) tvBalanceAmount.setText("-- DH");
+        if (tvIncomeAmount != null) tvIncomeAmount.setText("↑ -- DH");
+        if (tvExpenseAmount != null) tvExpenseAmount.setText("↓ -- DH");
+    }
+
     private void updateBalanceCard(double balance, double income, double expense) {
         // Balance totale (Income - Expense)
         if (tvBalanceAmount != null) {
@@ -249,19 +268,19 @@ public class HomeActivity extends BaseActivity {
     }
 
     private void loadRecentTransactions(Date startDate, Date endDate) {
-        List<Transaction> allTransactions =
-                dataManager.getTransactionsByDateRange(currentUserId, startDate, endDate);
-
-        recentTransactions.clear();
-
-        int count = Math.min(5, allTransactions.size());
-        for (int i = 0; i < count; i++) {
-            recentTransactions.add(allTransactions.get(i));
-        }
-
-        if (adapter != null) {
-            adapter.updateTransactions(recentTransactions);
-        }
+        // Only the first page of 5 is read, not the whole month
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.getTransactionPage(currentUserId, null, startDate, endDate, null, 5),
+                page -> {
+                    if (isFinishing() || isDestroyed()) return;
+
+                    // A new list each time: the adapter diffs against the one it shows
+                    recentTransactions = new ArrayList<>(page.getItems());
+
+                    if (adapter != null) {
+                        adapter.updateTransactions(recentTransactions);
+                    }
+                });
     }
 
 }
\ No newline at end of file
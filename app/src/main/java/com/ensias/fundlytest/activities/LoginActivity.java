@@ -10,6 +10,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.firebase.auth.FirebaseAuth;
@@ -40,23 +41,39 @@ public class LoginActivity extends AppCompatActivity {
             getSupportActionBar().hide();
         }
 
+        initViews();
+        setupListeners();
+
+        // Firebase initialises in the background: the form stays disabled until it is ready
+        btnLogin.setEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.FIREBASE, this::onFirebaseReady);
+    }
+
+    private void onFirebaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+
         // Initialiser Firebase Auth
         mAuth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
 
-        initViews();
-        setupListeners();
+        if (!redirectIfLoggedIn()) btnLogin.setEnabled(true);
     }
 
     @Override
     protected void onStart() {
         super.onStart();
+        if (mAuth != null) redirectIfLoggedIn();
+    }
+
+    private boolean redirectIfLoggedIn() {
         // Vérifier si l'utilisateur est déjà connecté
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser != null) {
             // Utilisateur déjà connecté → aller à HomeActivity
             goToHome();
+            return true;
         }
+        return false;
     }
 
     private void initViews() {
@@ -14,6 +14,7 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.android.material.textfield.TextInputEditText;
@@ -62,17 +63,11 @@ public class LoginDetailsActivity extends AppCompatActivity {
         if (getSupportActionBar() != null) getSupportActionBar().hide();
 
         sessionManager = new SessionManager(this);
-        auth = FirebaseAuth.getInstance();
-        firebaseUser = auth.getCurrentUser();
-        db = FirebaseFirestore.getInstance();
-
-        if (!sessionManager.isLoggedIn() || firebaseUser == null) {
+        if (!sessionManager.isLoggedIn()) {
             goToLoginAndFinish();
             return;
         }
 
-        userId = firebaseUser.getUid();
-
         bindViews();
 
         ivProfileImage.setImageResource(R.drawable.ic_default_user); // change if needed
@@ -83,7 +78,6 @@ public class LoginDetailsActivity extends AppCompatActivity {
             btnPickPhoto.setEnabled(false);
         }
 
-        bindViews();
         btnToggleCurrent.setOnClickListener(v -> {
             isCurrentVisible = togglePasswordVisibility(etCurrentPassword, btnToggleCurrent, isCurrentVisible);
         });
@@ -96,8 +90,6 @@ public class LoginDetailsActivity extends AppCompatActivity {
             isConfirmVisible = togglePasswordVisibility(etConfirmPassword, btnToggleConfirm, isConfirmVisible);
         });
 
-        loadUserFromFirestore();
-
         btnBack.setOnClickListener(v -> finish());
 
         // ✅ no more image picker
@@ -110,6 +102,27 @@ public class LoginDetailsActivity extends AppCompatActivity {
             sessionManager.logout();
             goToLoginAndFinish();
         });
+
+        // Firebase initialises in the background: the form stays disabled until it is ready
+        setUiEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.FIREBASE, this::onFirebaseReady);
+    }
+
+    private void onFirebaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+
+        auth = FirebaseAuth.getInstance();
+        firebaseUser = auth.getCurrentUser();
+        db = FirebaseFirestore.getInstance();
+
+        if (firebaseUser == null) {
+            goToLoginAndFinish();
+            return;
+        }
+
+        userId = firebaseUser.getUid();
+        setUiEnabled(true);
+        loadUserFromFirestore();
     }
 //    @Override
 //    protected void onCreate(Bundle savedInstanceState) {
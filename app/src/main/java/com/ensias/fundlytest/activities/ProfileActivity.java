@@ -1,7 +1,9 @@
 package com.ensias.fundlytest.activities;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
 import android.view.LayoutInflater;
 import android.widget.FrameLayout;
 import android.widget.ImageButton;
@@ -9,17 +11,28 @@ import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.cardview.widget.CardView;
 
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.database.DataManager;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.TransactionCsvImporter;
+import com.ensias.fundlytest.database.TransactionExporter;
+import com.ensias.fundlytest.core.Money;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.android.material.imageview.ShapeableImageView;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
 
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.text.DecimalFormat;
 import java.util.Calendar;
 import java.util.Date;
@@ -32,15 +45,24 @@ public class ProfileActivity extends BaseActivity {
     private TextView tvProfileIncome, tvProfileExpenses;
     private ImageButton btnEditBudget;
     private CardView cardBudget;
-    private LinearLayout menuLoginDetails;
+    private LinearLayout menuLoginDetails, menuImportCsv, menuExportCsv;
     private FirebaseAuth mAuth;
     private FirebaseUser currentUser;
     private FirebaseFirestore db;
     private SessionManager sessionManager;
     private String currentUserId;
-    private DataManager dataManager;
     private final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
 
+    private final ActivityResultLauncher<String[]> pickCsv = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) importCsv(uri);
+            });
+
+    private final ActivityResultLauncher<String> createCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"), uri -> {
+                if (uri != null) exportCsv(uri);
+            });
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -51,15 +73,8 @@ public class ProfileActivity extends BaseActivity {
 
         if (getSupportActionBar() != null) getSupportActionBar().hide();
 
-        mAuth = FirebaseAuth.getInstance();
-        currentUser = mAuth.getCurrentUser();
-        db = FirebaseFirestore.getInstance();
         sessionManager = new SessionManager(this);
-
         currentUserId = sessionManager.getUserId();
-        if (currentUserId == null && currentUser != null) currentUserId = currentUser.getUid();
-
-        dataManager = new DataManager();
 
         initViews();
 
@@ -67,11 +82,31 @@ public class ProfileActivity extends BaseActivity {
         ivProfileImage.setImageResource(R.drawable.ic_default_user); // change if needed
         ivProfileImage.setPadding(20, 20, 20, 20);
 
+        // From the session until Firebase is ready, then from Firestore
         loadUserData();
         loadBudgetData();
         setupListeners();
 
         highlightCurrentTab();
+
+        // Firebase initialises in the background: logout waits for it
+        btnLogout.setEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.FIREBASE, this::onFirebaseReady);
+    }
+
+    private void onFirebaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+
+        mAuth = FirebaseAuth.getInstance();
+        currentUser = mAuth.getCurrentUser();
+        db = FirebaseFirestore.getInstance();
+
+        if (currentUserId == null && currentUser != null) {
+            currentUserId = currentUser.getUid();
+            loadBudgetData();
+        }
+        loadUserData();
+        btnLogout.setEnabled(true);
     }
 
     private void initViews() {
@@ -90,6 +125,8 @@ public class ProfileActivity extends BaseActivity {
         btnEditBudget = findViewById(R.id.btn_edit_budget);
         cardBudget = findViewById(R.id.card_budget);
         menuLoginDetails = findViewById(R.id.menu_login_details);
+        menuImportCsv = findViewById(R.id.menu_import_csv);
+        menuExportCsv = findViewById(R.id.menu_export_csv);
     }
 
     private void loadUserData() {
@@ -154,11 +191,12 @@ public class ProfileActivity extends BaseActivity {
         if (currentUserId == null) return;
 
         Date[] dates = getCurrentMonthDates();
-        double totalIncome = dataManager.getTotalIncome(currentUserId, dates[0], dates[1]);
-        double totalExpenses = dataManager.getTotalExpenses(currentUserId, dates[0], dates[1]);
-
-        tvProfileIncome.setText(formatAmount(totalIncome) + " DH");
-        tvProfileExpenses.setText(formatAmount(totalExpenses) + " DH");
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.getPeriodSummary(currentUserId, dates[0], dates[1]),
+                summary -> {
+                    tvProfileIncome.setText(formatAmount(Money.toMajor(summary.getTotalIncome())) + " DH");
+                    tvProfileExpenses.setText(formatAmount(Money.toMajor(summary.getTotalExpenses())) + " DH");
+                });
     }
 
     private Date[] getCurrentMonthDates() {
@@ -198,6 +236,77 @@ public class ProfileActivity extends BaseActivity {
         menuLoginDetails.setOnClickListener(v ->
                 startActivity(new Intent(ProfileActivity.this, LoginDetailsActivity.class))
         );
+
+        menuImportCsv.setOnClickListener(v ->
+                pickCsv.launch(new String[]{"text/csv", "text/comma-separated-values", "text/plain"})
+        );
+
+        menuExportCsv.setOnClickListener(v -> createCsv.launch("fundly-transactions.csv"));
+    }
+
+    private void importCsv(Uri uri) {
+        if (currentUserId == null) return;
+
+        AlertDialog progressDialog = new AlertDialog.Builder(this)
+                .setTitle("Importing")
+                .setMessage("Reading file...")
+                .setCancelable(false)
+                .show();
+
+        String userId = currentUserId;
+        AsyncDataManager.getInstance().submit(dm -> {
+            try (InputStream in = getContentResolver().openInputStream(uri)) {
+                if (in == null) throw new IOException("Cannot open " + uri);
+                return new TransactionCsvImporter(dm, userId).importFrom(in, (rows, bytes) ->
+                        runOnUiThread(() -> progressDialog.setMessage(rows + " transactions imported...")));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, new AsyncDataManager.Callback<TransactionCsvImporter.Result>() {
+            @Override
+            public void onResult(TransactionCsvImporter.Result result) {
+                if (isDestroyed()) return;
+                progressDialog.dismiss();
+                String message = result.getImported() + " transactions imported";
+                if (result.getSkipped() > 0) message += ", " + result.getSkipped() + " rows skipped";
+                Toast.makeText(ProfileActivity.this, message, Toast.LENGTH_LONG).show();
+                loadBudgetData();
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (isDestroyed()) return;
+                progressDialog.dismiss();
+                Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+                Toast.makeText(ProfileActivity.this, "Import failed: " + cause.getMessage(), Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+
+    private void exportCsv(Uri uri) {
+        if (currentUserId == null) return;
+
+        String userId = currentUserId;
+        AsyncDataManager async = AsyncDataManager.getInstance();
+        Toast.makeText(this, "Exporting...", Toast.LENGTH_SHORT).show();
+
+        // Reads a frozen snapshot on its own thread: the Realm worker stays free for writes
+        async.runDetached(() -> {
+            String message;
+            try (ParcelFileDescriptor pfd = getContentResolver().openFileDescriptor(uri, "wt");
+                 FileChannel channel = new FileOutputStream(pfd.getFileDescriptor()).getChannel()) {
+                long rows = new TransactionExporter(userId, TransactionExporter.Format.CSV)
+                        .export(channel, null);
+                message = rows + " transactions exported";
+            } catch (IOException | RuntimeException e) {
+                message = "Export failed: " + e.getMessage();
+            }
+
+            String result = message;
+            async.postToMain(() -> {
+                if (!isDestroyed()) Toast.makeText(this, result, Toast.LENGTH_LONG).show();
+            });
+        });
     }
 
     private void showLogoutDialog() {
@@ -226,10 +335,4 @@ public class ProfileActivity extends BaseActivity {
         loadUserData();
         loadBudgetData();
     }
-
-    @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (dataManager != null) dataManager.close();
-    }
 }
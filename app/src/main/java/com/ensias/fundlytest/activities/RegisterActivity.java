@@ -10,6 +10,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.AppCompatButton;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.firebase.auth.FirebaseAuth;
@@ -44,12 +45,21 @@ public class RegisterActivity extends AppCompatActivity {
             getSupportActionBar().hide();
         }
 
+        initViews();
+        setupListeners();
+
+        // Firebase initialises in the background: the form stays disabled until it is ready
+        btnSignup.setEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.FIREBASE, this::onFirebaseReady);
+    }
+
+    private void onFirebaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+
         // Initialiser Firebase
         mAuth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
-
-        initViews();
-        setupListeners();
+        btnSignup.setEnabled(true);
     }
 
     private void initViews() {
@@ -1,15 +1,23 @@
 package com.ensias.fundlytest.activities;
 
-import android.content.res.ColorStateList;
 import android.graphics.Color;
-import android.os.Build;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.*;
 import android.widget.*;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Category;
+import com.ensias.fundlytest.adapters.CategoryBreakdownAdapter;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.database.ReportEngine;
+import com.ensias.fundlytest.database.TransactionSnapshots;
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.PeriodSummary;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.utils.IconRegistry;
+import com.ensias.fundlytest.utils.PieChartCache;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.github.mikephil.charting.charts.PieChart;
 import com.github.mikephil.charting.data.*;
@@ -23,7 +31,6 @@ public class ReportsActivity extends BaseActivity {
 
     private static final String TAG = "ReportsActivity";
 
-    private DataManager dataManager;
     private SessionManager sessionManager;
     private String currentUserId;
 
@@ -34,7 +41,9 @@ public class ReportsActivity extends BaseActivity {
     private TextView expensesTextView;
     private TextView incomeTextView;
     private TextView balanceTextView;
-    private LinearLayout categoryBreakdownLayout;
+    private RecyclerView categoryBreakdownList;
+    private TextView categoryBreakdownEmpty;
+    private CategoryBreakdownAdapter breakdownAdapter;
     private TabLayout periodTabLayout;
     private TabLayout dateTabLayout;
 
@@ -45,13 +54,20 @@ public class ReportsActivity extends BaseActivity {
 
     private Date startDate;
     private Date endDate;
+    // Bounds of the six date tabs, oldest first: tab periods are [bounds[i], bounds[i + 1])
+    private Date[] periodBounds;
     private String periodType = "month";
     private String reportType = "expense";
 
     private TabLayout.OnTabSelectedListener dateTabListener;
     private boolean suppressDateTabCallback = false;
+    private int chartLoadGeneration = 0;
 
-    private Map<String, Category> categoryCache = new HashMap<>();
+    private final CategoryCache categoryCache = CategoryCache.getInstance();
+    private final ReportEngine reportEngine = ReportEngine.getInstance();
+    private final PieChartCache pieCache = new PieChartCache();
+    // Cached pies carry category names and colours
+    private final Runnable onCategoriesChanged = pieCache::clear;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -73,9 +89,9 @@ public class ReportsActivity extends BaseActivity {
 
         Log.d(TAG, "ReportsActivity started for user: " + currentUserId);
 
-        dataManager = new DataManager();
+        TransactionSnapshots.getInstance().warmUp(currentUserId);
+        categoryCache.addListener(onCategoriesChanged);
 
-        loadCategoryCache();
         setupViews();
         setupPieChart();
         setupPeriodTabs();
@@ -84,7 +100,6 @@ public class ReportsActivity extends BaseActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadCategoryCache();
         if (startDate != null && endDate != null) {
             loadChartData();
         }
@@ -93,29 +108,12 @@ public class ReportsActivity extends BaseActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        categoryCache.removeListener(onCategoriesChanged);
         if (pieChart != null) pieChart.clear();
-        if (dataManager != null) dataManager.close();
     }
 
-    private void loadCategoryCache() {
-        categoryCache.clear();
-
-        try {
-            // FILTER BY USER ID
-            List<Category> expenseCategories = dataManager.getCategoriesByType(currentUserId, "expense");
-            List<Category> incomeCategories = dataManager.getCategoriesByType(currentUserId, "income");
-
-            for (Category cat : expenseCategories) {
-                categoryCache.put(cat.getName(), cat);
-            }
-            for (Category cat : incomeCategories) {
-                categoryCache.put(cat.getName(), cat);
-            }
-
-            Log.d(TAG, "Category cache loaded: " + categoryCache.size() + " categories");
-        } catch (Exception e) {
-            Log.e(TAG, "Error loading category cache", e);
-        }
+    private String getCategoryName(String categoryId) {
+        return categoryCache.getName(categoryId, "Other");
     }
 
     private void setupViews() {
@@ -137,7 +135,13 @@ public class ReportsActivity extends BaseActivity {
         expensesTextView = findViewById(R.id.expensesTextView);
         incomeTextView = findViewById(R.id.incomeTextView);
         balanceTextView = findViewById(R.id.balanceTextView);
-        categoryBreakdownLayout = findViewById(R.id.categoryBreakdownLayout);
+        categoryBreakdownEmpty = findViewById(R.id.categoryBreakdownEmpty);
+        categoryBreakdownList = findViewById(R.id.categoryBreakdownList);
+        if (categoryBreakdownList != null) {
+            breakdownAdapter = new CategoryBreakdownAdapter();
+            categoryBreakdownList.setLayoutManager(new LinearLayoutManager(this));
+            categoryBreakdownList.setAdapter(breakdownAdapter);
+        }
         periodTabLayout = findViewById(R.id.periodTabLayout);
         dateTabLayout = findViewById(R.id.dateTabLayout);
     }
@@ -208,6 +212,7 @@ public class ReportsActivity extends BaseActivity {
 
         if ("week".equals(periodType)) {
             Date currentWeekStart = startOfWeek(now);
+            periodBounds = periodBounds(currentWeekStart, Calendar.WEEK_OF_YEAR);
             for (int i = 0; i < 6; i++) {
                 Date base = addToDate(currentWeekStart, Calendar.WEEK_OF_YEAR, -i);
                 TabLayout.Tab tab = dateTabLayout.newTab();
@@ -217,6 +222,7 @@ public class ReportsActivity extends BaseActivity {
             }
         } else if ("month".equals(periodType)) {
             Date currentMonthStart = startOfMonth(now);
+            periodBounds = periodBounds(currentMonthStart, Calendar.MONTH);
             for (int i = 0; i < 6; i++) {
                 Date base = addToDate(currentMonthStart, Calendar.MONTH, -i);
                 TabLayout.Tab tab = dateTabLayout.newTab();
@@ -226,6 +232,7 @@ public class ReportsActivity extends BaseActivity {
             }
         } else {
             Date currentYearStart = startOfYear(now);
+            periodBounds = periodBounds(currentYearStart, Calendar.YEAR);
             for (int i = 0; i < 6; i++) {
                 Date base = addToDate(currentYearStart, Calendar.YEAR, -i);
                 TabLayout.Tab tab = dateTabLayout.newTab();
@@ -248,6 +255,13 @@ public class ReportsActivity extends BaseActivity {
         dateTabLayout.addOnTabSelectedListener(dateTabListener);
     }
 
+    /** Start of the oldest of the six tabs through the end of the current period. */
+    private Date[] periodBounds(Date currentStart, int field) {
+        Date[] bounds = new Date[7];
+        for (int i = 0; i < bounds.length; i++) bounds[i] = addToDate(currentStart, field, i - 5);
+        return bounds;
+    }
+
     private void updateDatesFromTab(TabLayout.Tab tab) {
         Object tag = tab.getTag();
         if (!(tag instanceof Date)) return;
@@ -349,12 +363,49 @@ public class ReportsActivity extends BaseActivity {
     private void loadChartData() {
         if (startDate == null || endDate == null) return;
 
+        // Only the latest request may render, earlier ones can finish out of tab order
+        final int generation = ++chartLoadGeneration;
+        final Date start = startDate;
+        final Date end = endDate;
+
+        PeriodSummary cached = reportEngine.getCached(currentUserId, periodType, start);
+        if (cached != null) {
+            showSummary(cached);
+            return;
+        }
+
         showLoadingState();
 
+        // One load fills every tab of the current period type
+        if (periodBounds != null && containsPeriod(periodBounds, start)) {
+            reportEngine.load(currentUserId, periodType, periodBounds, summaries -> {
+                if (generation != chartLoadGeneration || isDestroyed()) return;
+                PeriodSummary summary = summaries.get(start.getTime());
+                if (summary != null) showSummary(summary);
+            });
+            return;
+        }
+
         // FILTER BY USER ID
-        double totalExpenses = dataManager.getTotalExpenses(currentUserId, startDate, endDate);
-        double totalIncome = dataManager.getTotalIncome(currentUserId, startDate, endDate);
-        Map<String, Double> breakdown = dataManager.getCategoryBreakdown(currentUserId, startDate, endDate, reportType);
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.getPeriodSummary(currentUserId, start, end),
+                summary -> {
+                    if (generation != chartLoadGeneration || isDestroyed()) return;
+                    showSummary(summary);
+                });
+    }
+
+    private static boolean containsPeriod(Date[] bounds, Date start) {
+        for (int i = 0; i < bounds.length - 1; i++) {
+            if (bounds[i].equals(start)) return true;
+        }
+        return false;
+    }
+
+    private void showSummary(PeriodSummary summary) {
+        long totalExpenses = summary.getTotalExpenses();
+        long totalIncome = summary.getTotalIncome();
+        Map<String, Long> breakdown = summary.getBreakdown(reportType);
 
         Log.d(TAG, "Loaded data for user " + currentUserId + " - Expenses: " + totalExpenses +
                 ", Income: " + totalIncome + ", Breakdown items: " + (breakdown != null ? breakdown.size() : 0));
@@ -364,60 +415,65 @@ public class ReportsActivity extends BaseActivity {
         updateCategoryBreakdown(breakdown, reportType.equals("expense") ? totalExpenses : totalIncome);
     }
 
-    private void updateSummary(double totalExpenses, double totalIncome) {
-        double balance = totalIncome - totalExpenses;
+    private void updateSummary(long totalExpenses, long totalIncome) {
+        long balance = totalIncome - totalExpenses;
 
         if (totalAmountView != null) {
-            double displayTotal = reportType.equals("expense") ? totalExpenses : totalIncome;
-            totalAmountView.setText(decimalFormat.format(displayTotal));
+            long displayTotal = reportType.equals("expense") ? totalExpenses : totalIncome;
+            totalAmountView.setText(decimalFormat.format(Money.toMajor(displayTotal)));
         }
 
-        if (expensesTextView != null) expensesTextView.setText("-" + decimalFormat.format(totalExpenses));
-        if (incomeTextView != null) incomeTextView.setText("+" + decimalFormat.format(totalIncome));
+        if (expensesTextView != null) expensesTextView.setText("-" + decimalFormat.format(Money.toMajor(totalExpenses)));
+        if (incomeTextView != null) incomeTextView.setText("+" + decimalFormat.format(Money.toMajor(totalIncome)));
 
         if (balanceTextView != null) {
-            balanceTextView.setText(decimalFormat.format(balance));
+            balanceTextView.setText(decimalFormat.format(Money.toMajor(balance)));
             balanceTextView.setTextColor(balance >= 0 ? Color.parseColor("#4CAF50") : Color.parseColor("#F44336"));
         }
     }
 
-    private void updatePieChart(Map<String, Double> breakdown) {
+    /** Puts the cached pie for this period back on the chart; only a changed breakdown is rebuilt. */
+    private void updatePieChart(Map<String, Long> breakdown) {
         if (pieChart == null) return;
 
-        if (breakdown == null || breakdown.isEmpty()) {
-            pieChart.setData(null);
-            pieChart.invalidate();
+        PieData data = pieCache.get(periodType, startDate.getTime(), reportType, breakdown, this::buildPieData);
+        if (data != null && data == pieChart.getData()) return; // already on screen
+
+        pieChart.setData(data);
+        pieChart.invalidate();
+    }
+
+    private PieData buildPieData(Map<String, Long> breakdown) {
+        if (breakdown.isEmpty()) {
             Log.d(TAG, "No breakdown data for pie chart");
-            return;
+            return null;
         }
 
         List<PieEntry> entries = new ArrayList<>();
         List<Integer> colors = new ArrayList<>();
 
-        for (Map.Entry<String, Double> e : breakdown.entrySet()) {
-            double amount = (e.getValue() == null) ? 0.0 : e.getValue();
-            if (amount <= 0) continue;
+        for (Map.Entry<String, Long> e : breakdown.entrySet()) {
+            long amountMinor = (e.getValue() == null) ? 0 : e.getValue();
+            if (amountMinor <= 0) continue;
+            double amount = Money.toMajor(amountMinor);
 
-            String categoryName = e.getKey();
+            String categoryId = e.getKey();
+            String categoryName = getCategoryName(categoryId);
             entries.add(new PieEntry((float) amount, categoryName));
 
-            Category category = categoryCache.get(categoryName);
+            CategoryInfo category = categoryCache.get(categoryId);
             int color = category != null ? category.getColor() : Color.parseColor("#607D8B");
 
             if (category != null) {
                 Log.d(TAG, "Category: " + categoryName + " -> Color: #" + Integer.toHexString(color));
             } else {
-                Log.w(TAG, "Category not found in cache: " + categoryName);
+                Log.w(TAG, "Category not found in cache: " + categoryId);
             }
 
             colors.add(color);
         }
 
-        if (entries.isEmpty()) {
-            pieChart.setData(null);
-            pieChart.invalidate();
-            return;
-        }
+        if (entries.isEmpty()) return null;
 
         PieDataSet dataSet = new PieDataSet(entries, "");
         dataSet.setSliceSpace(2.5f);
@@ -429,110 +485,67 @@ public class ReportsActivity extends BaseActivity {
         data.setValueTextSize(11f);
         data.setValueTextColor(Color.WHITE);
 
-        pieChart.setData(data);
-        pieChart.invalidate();
-
-        Log.d(TAG, "Pie chart updated with " + entries.size() + " slices");
+        Log.d(TAG, "Pie chart built with " + entries.size() + " slices");
+        return data;
     }
 
-    private void updateCategoryBreakdown(Map<String, Double> breakdown, double totalForType) {
-        if (categoryBreakdownLayout == null) return;
-        categoryBreakdownLayout.removeAllViews();
+    private void updateCategoryBreakdown(Map<String, Long> breakdown, long totalForType) {
+        if (breakdownAdapter == null) return;
 
         if (breakdown == null || breakdown.isEmpty() || totalForType <= 0) {
-            TextView emptyText = new TextView(this);
-            String emptyMessage = reportType.equals("expense")
+            breakdownAdapter.submitList(Collections.emptyList());
+            categoryBreakdownEmpty.setText(reportType.equals("expense")
                     ? "No expenses in this period"
-                    : "No income in this period";
-            emptyText.setText(emptyMessage);
-            emptyText.setTextColor(Color.parseColor("#757575"));
-            emptyText.setTextSize(14f);
-            emptyText.setPadding(16, 24, 16, 24);
-            categoryBreakdownLayout.addView(emptyText);
+                    : "No income in this period");
+            categoryBreakdownEmpty.setVisibility(View.VISIBLE);
             return;
         }
+        categoryBreakdownEmpty.setVisibility(View.GONE);
 
-        LayoutInflater inflater = LayoutInflater.from(this);
-
-        List<Map.Entry<String, Double>> sorted = new ArrayList<>(breakdown.entrySet());
-        sorted.sort((a, b) -> Double.compare(
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(breakdown.entrySet());
+        sorted.sort((a, b) -> Long.compare(
                 b.getValue() == null ? 0 : b.getValue(),
                 a.getValue() == null ? 0 : a.getValue()
         ));
 
-        for (Map.Entry<String, Double> entry : sorted) {
-            String categoryName = entry.getKey();
-            double amount = entry.getValue() == null ? 0.0 : entry.getValue();
-            float percentage = (float) (amount / totalForType * 100f);
-
-            View row = inflater.inflate(R.layout.item_category_expense, categoryBreakdownLayout, false);
-
-            TextView tvName = row.findViewById(R.id.categoryName);
-            TextView tvPercent = row.findViewById(R.id.categoryPercent);
-            TextView tvAmount = row.findViewById(R.id.categoryAmount);
-            ImageView ivIcon = row.findViewById(R.id.categoryIcon);
-            View progress = row.findViewById(R.id.progressBar);
-
-            tvName.setText(categoryName);
-            tvPercent.setText(String.format(Locale.getDefault(), "%.1f%%", percentage));
-            tvAmount.setText(decimalFormat.format(amount) + " DH");
-
-            Category category = categoryCache.get(categoryName);
-
-            int color = Color.parseColor("#607D8B");
-            int iconRes = R.drawable.ic_attach_money;
-
-            if (category != null) {
-                color = category.getColor();
-                iconRes = getCategoryIconRes(category.getIconName());
-                Log.d(TAG, "Breakdown row: " + categoryName + " -> Icon: " + category.getIconName() +
-                        ", Color: #" + Integer.toHexString(color));
-            } else {
-                Log.w(TAG, "Category not found for breakdown: " + categoryName);
-            }
-
-            ivIcon.setImageResource(iconRes);
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                ivIcon.setImageTintList(ColorStateList.valueOf(color));
-            } else {
-                ivIcon.setColorFilter(color);
-            }
-
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                progress.setBackgroundTintList(ColorStateList.valueOf(color));
-            }
-
-            progress.setPivotX(0f);
-            progress.setScaleX(Math.max(0.02f, Math.min(1f, percentage / 100f)));
-
-            categoryBreakdownLayout.addView(row);
+        List<CategoryBreakdownAdapter.Row> rows = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, Long> entry : sorted) {
+            String categoryId = entry.getKey();
+            long amountMinor = entry.getValue() == null ? 0 : entry.getValue();
+            float percentage = (float) ((double) amountMinor / totalForType * 100f);
+
+            CategoryInfo category = categoryCache.get(categoryId);
+            if (category == null) Log.w(TAG, "Category not found for breakdown: " + categoryId);
+
+            rows.add(new CategoryBreakdownAdapter.Row(
+                    categoryId,
+                    getCategoryName(categoryId),
+                    category != null ? getCategoryIconRes(category.getIconName()) : R.drawable.ic_attach_money,
+                    category != null ? category.getColor() : Color.parseColor("#607D8B"),
+                    decimalFormat.format(Money.toMajor(amountMinor)) + " DH",
+                    String.format(Locale.getDefault(), "%.1f%%", percentage),
+                    percentage / 100f));
         }
+        // Diffed against the previous period's rows, so their views are reused
+        breakdownAdapter.submitList(rows);
     }
 
     private int getCategoryIconRes(String iconName) {
-        if (iconName == null || iconName.isEmpty()) {
-            return R.drawable.ic_attach_money;
-        }
-
-        try {
-            int resId = getResources().getIdentifier(iconName, "drawable", getPackageName());
-            return (resId != 0) ? resId : R.drawable.ic_attach_money;
-        } catch (Exception e) {
-            Log.e(TAG, "Error getting icon resource for: " + iconName, e);
-            return R.drawable.ic_attach_money;
-        }
+        return IconRegistry.resolve(iconName);
     }
 
     private void showLoadingState() {
         if (totalAmountView != null) totalAmountView.setText("--");
 
+        // Keep showing this period's last pie, if any, until the summary says whether it changed
         if (pieChart != null) {
-            pieChart.setData(null);
-            pieChart.invalidate();
+            PieData stale = pieCache.peek(periodType, startDate.getTime(), reportType);
+            if (stale != pieChart.getData()) {
+                pieChart.setData(stale);
+                pieChart.invalidate();
+            }
         }
 
-        if (categoryBreakdownLayout != null) {
-            categoryBreakdownLayout.removeAllViews();
-        }
+        // The breakdown keeps the previous rows until the new ones are diffed in
     }
 }
\ No newline at end of file
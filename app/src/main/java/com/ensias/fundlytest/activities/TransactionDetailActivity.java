@@ -9,10 +9,13 @@ import android.widget.ImageView;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Category;
-import com.ensias.fundlytest.models.Transaction;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.utils.IconRegistry;
 import com.ensias.fundlytest.utils.SessionManager;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
@@ -20,7 +23,6 @@ import java.util.Locale;
 
 public class TransactionDetailActivity extends AppCompatActivity {
 
-    private DataManager dataManager;
     private SessionManager sessionManager;
     private String currentUserId;
 
@@ -31,7 +33,10 @@ public class TransactionDetailActivity extends AppCompatActivity {
     private TextView transactionNote;
     private ImageView iconImage;
     private View iconBackground;
+    private View editButton;
+    private View deleteButton;
     private String transactionId;
+    private boolean databaseReady;
     private DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
     private SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM yyyy", Locale.getDefault());
 
@@ -57,36 +62,39 @@ public class TransactionDetailActivity extends AppCompatActivity {
             return;
         }
 
-        dataManager = new DataManager();
         setupViews();
-        loadTransactionDetails();
+
+        // Edit and delete wait for the row, and the row for the database on a cold start
+        editButton.setEnabled(false);
+        deleteButton.setEnabled(false);
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.DATABASE, this::onDatabaseReady);
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
+    private void onDatabaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+        databaseReady = true;
         loadTransactionDetails();
     }
 
     @Override
-    protected void onDestroy() {
-        super.onDestroy();
-        if (dataManager != null) {
-            dataManager.close();
-        }
+    protected void onResume() {
+        super.onResume();
+        if (databaseReady) loadTransactionDetails();
     }
 
     private void setupViews() {
         findViewById(R.id.backButton).setOnClickListener(v -> finish());
 
-        findViewById(R.id.editButton).setOnClickListener(v -> {
+        editButton = findViewById(R.id.editButton);
+        editButton.setOnClickListener(v -> {
             Intent intent = new Intent(TransactionDetailActivity.this, AddTransactionActivity.class);
             intent.putExtra("transaction_id", transactionId);
             intent.putExtra("is_edit", true);
             startActivity(intent);
         });
 
-        findViewById(R.id.deleteButton).setOnClickListener(v -> showDeleteConfirmationDialog());
+        deleteButton = findViewById(R.id.deleteButton);
+        deleteButton.setOnClickListener(v -> showDeleteConfirmationDialog());
 
         transactionName = findViewById(R.id.transactionName);
         transactionType = findViewById(R.id.transactionType);
@@ -107,8 +115,25 @@ public class TransactionDetailActivity extends AppCompatActivity {
     }
 
     private void loadTransactionDetails() {
-        Transaction transaction = dataManager.getTransactionById(transactionId);
+        AsyncDataManager.getInstance().submit(dm -> dm.getTransactionInfo(transactionId),
+                new AsyncDataManager.Callback<TransactionInfo>() {
+                    @Override
+                    public void onResult(TransactionInfo transaction) {
+                        if (isFinishing() || isDestroyed()) return;
+                        showTransaction(transaction);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (isFinishing() || isDestroyed()) return;
+                        Toast.makeText(TransactionDetailActivity.this, "Could not load: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                        finish();
+                    }
+                });
+    }
 
+    private void showTransaction(TransactionInfo transaction) {
         if (transaction != null) {
             // VERIFY THIS TRANSACTION BELONGS TO CURRENT USER
             if (!currentUserId.equals(transaction.getUserId())) {
@@ -119,15 +144,17 @@ public class TransactionDetailActivity extends AppCompatActivity {
 
             updateUI(transaction);
             loadCategoryDetails(transaction.getCategoryId());
+            editButton.setEnabled(true);
+            deleteButton.setEnabled(true);
         } else {
             Toast.makeText(this, "Transaction not found", Toast.LENGTH_SHORT).show();
             finish();
         }
     }
 
-    private void updateUI(Transaction transaction) {
+    private void updateUI(TransactionInfo transaction) {
         // Set amount
-        String amountText = decimalFormat.format(transaction.getAmount()) + " DH";
+        String amountText = decimalFormat.format(Money.toMajor(transaction.getAmountMinor())) + " DH";
         transactionAmount.setText(amountText);
 
         // Set date
@@ -148,20 +175,9 @@ public class TransactionDetailActivity extends AppCompatActivity {
             transactionNote.setVisibility(View.GONE);
         }
 
-        // Set icon if available
-        if (transaction.getIconName() != null) {
-            try {
-                int resId = getResources().getIdentifier(
-                        transaction.getIconName(), "drawable", getPackageName());
-                if (resId != 0) {
-                    iconImage.setImageResource(resId);
-                    iconImage.setColorFilter(0xFFFFFFFF); // White tint
-                }
-            } catch (Exception e) {
-                iconImage.setImageResource(R.drawable.ic_attach_money);
-                iconImage.setColorFilter(0xFFFFFFFF); // White tint
-            }
-        }
+        // Set icon
+        iconImage.setImageResource(IconRegistry.resolve(transaction.getIconName()));
+        iconImage.setColorFilter(0xFFFFFFFF); // White tint
 
         // Set color while preserving the circle shape
         if (transaction.getColor() != 0) {
@@ -176,17 +192,26 @@ public class TransactionDetailActivity extends AppCompatActivity {
     }
 
     private void loadCategoryDetails(String categoryId) {
-        Category category = dataManager.getCategoryById(categoryId);
-        if (category != null) {
-            transactionName.setText(category.getName());
-        } else {
-            transactionName.setText("Transaction");
-        }
+        transactionName.setText(CategoryCache.getInstance().getName(categoryId, "Transaction"));
     }
 
     private void deleteTransaction() {
-        dataManager.deleteTransaction(transactionId);
-        Toast.makeText(this, "Transaction deleted", Toast.LENGTH_SHORT).show();
-        finish();
+        AsyncDataManager.getInstance().execute(dm -> dm.deleteTransaction(transactionId),
+                new AsyncDataManager.Callback<Void>() {
+                    @Override
+                    public void onResult(Void result) {
+                        if (isDestroyed()) return;
+                        Toast.makeText(TransactionDetailActivity.this, "Transaction deleted",
+                                Toast.LENGTH_SHORT).show();
+                        finish();
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (isDestroyed()) return;
+                        Toast.makeText(TransactionDetailActivity.this, "Could not delete: " + e.getMessage(),
+                                Toast.LENGTH_LONG).show();
+                    }
+                });
     }
 }
\ No newline at end of file
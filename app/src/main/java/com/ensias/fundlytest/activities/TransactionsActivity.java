@@ -7,12 +7,16 @@ import android.widget.Button;
 import android.widget.FrameLayout;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.ensias.fundlytest.adapters.TransactionAdapter;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Transaction;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.core.TransactionPage;
 import com.ensias.fundlytest.utils.SessionManager;
 import com.google.android.material.tabs.TabLayout;
 import java.text.DecimalFormat;
@@ -25,13 +29,15 @@ import java.util.Locale;
 
 public class TransactionsActivity extends BaseActivity {
 
-    private DataManager dataManager;
+    private static final int PAGE_SIZE = 50;
+    // Rows left below the last visible one when the next page is requested
+    private static final int PREFETCH_DISTANCE = 15;
+
     private SessionManager sessionManager;
     private String currentUserId;
     private RecyclerView transactionsList;
+    private LinearLayoutManager layoutManager;
     private TransactionAdapter adapter;
-    private List<Transaction> allTransactions = new ArrayList<>();
-    private List<Transaction> filteredTransactions = new ArrayList<>();
     private TextView totalLabel;
     private TextView weekSelector;
     private Button btnAddTransaction;
@@ -41,6 +47,19 @@ public class TransactionsActivity extends BaseActivity {
     private Date endDate;
     private SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
     private DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
+    // Bumped per total request, so a slow sum for an old window is dropped
+    private int totalGeneration;
+
+    private boolean databaseReady;
+    // The pages read so far for the current type and window
+    private final List<TransactionInfo> loaded = new ArrayList<>();
+    private TransactionPage.Cursor nextCursor;
+    private boolean hasMore;
+    private boolean pageLoading;
+    // Bumped when the type or window changes, so pages for the old one are dropped
+    private int listGeneration;
+    // Set when the screen is left: writes happen on other screens, reread on return
+    private boolean stale;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -60,30 +79,48 @@ public class TransactionsActivity extends BaseActivity {
             return;
         }
 
-        dataManager = new DataManager();
         setupViews();
         setupTabs();
         setupDateRange();
         setupClickListeners();
+
+        // The database may still be opening on a cold start: bind the list once it is
+        totalLabel.setText("Total: --");
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.DATABASE, this::onDatabaseReady);
+    }
+
+    private void onDatabaseReady() {
+        if (isFinishing() || isDestroyed()) return;
+        databaseReady = true;
+        loadTransactions();
     }
 
     @Override
     protected void onResume() {
         super.onResume();
-        loadTransactions();
+        if (stale) {
+            stale = false;
+            refreshTransactions();
+        }
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        stale = databaseReady;
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        if (dataManager != null) {
-            dataManager.close();
+        if (adapter != null) {
+            adapter.release();
         }
     }
 
     private void setupViews() {
         findViewById(R.id.btnBack).setOnClickListener(v -> finish());
-        findViewById(R.id.btnRefresh).setOnClickListener(v -> loadTransactions());
+        findViewById(R.id.btnRefresh).setOnClickListener(v -> refreshTransactions());
 
         totalLabel = findViewById(R.id.totalLabel);
         weekSelector = findViewById(R.id.weekSelector);
@@ -91,11 +128,20 @@ public class TransactionsActivity extends BaseActivity {
         tabLayout = findViewById(R.id.tabLayout);
 
         transactionsList = findViewById(R.id.transactionsList);
-        transactionsList.setLayoutManager(new LinearLayoutManager(this));
+        layoutManager = new LinearLayoutManager(this);
+        transactionsList.setLayoutManager(layoutManager);
+        transactionsList.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy > 0 && layoutManager.findLastVisibleItemPosition() >= loaded.size() - PREFETCH_DISTANCE) {
+                    loadNextPage();
+                }
+            }
+        });
 
-        adapter = new TransactionAdapter(filteredTransactions, transaction -> {
+        adapter = new TransactionAdapter(transactionId -> {
             Intent intent = new Intent(TransactionsActivity.this, TransactionDetailActivity.class);
-            intent.putExtra("transaction_id", transaction.getId());
+            intent.putExtra("transaction_id", transactionId);
             startActivity(intent);
         });
         transactionsList.setAdapter(adapter);
@@ -110,9 +156,7 @@ public class TransactionsActivity extends BaseActivity {
             @Override
             public void onTabSelected(TabLayout.Tab tab) {
                 currentType = tab.getPosition() == 0 ? "expense" : "income";
-                filterAndDisplayTransactions();
-                updateTotalLabel();
-                updateTotal();
+                loadTransactions();
             }
 
             @Override
@@ -166,8 +210,7 @@ public class TransactionsActivity extends BaseActivity {
                 weekSelector.setText("This week");
             }
 
-            filterAndDisplayTransactions();
-            updateTotal();
+            loadTransactions();
         });
     }
 
@@ -180,49 +223,96 @@ public class TransactionsActivity extends BaseActivity {
         weekSelector.setText(text);
     }
 
+    /**
+     * Shows the current type and window from its first page; later pages are read as
+     * the list scrolls near its end, so only the rows scrolled to are read and built.
+     * Pages come from the Realm worker by keyset cursor, the total is summed there too.
+     */
     private void loadTransactions() {
-        // FILTER BY USER ID
-        allTransactions = dataManager.getAllTransactions(currentUserId);
-        filterAndDisplayTransactions();
+        if (!databaseReady) return; // onDatabaseReady loads it
+
+        listGeneration++;
+        loaded.clear();
+        nextCursor = null;
+        hasMore = true;
+        pageLoading = false;
+        adapter.updateTransactions(loaded);
+        transactionsList.scrollToPosition(0);
+
+        loadNextPage();
         updateTotal();
     }
 
-    private void filterAndDisplayTransactions() {
-        filteredTransactions.clear();
-
-        for (Transaction transaction : allTransactions) {
-            boolean typeMatches = transaction.getType().equals(currentType);
-            boolean dateMatches = transaction.getDate() != null &&
-                    !transaction.getDate().before(startDate) &&
-                    transaction.getDate().before(endDate);
+    private void loadNextPage() {
+        if (!databaseReady || pageLoading || !hasMore) return;
+        pageLoading = true;
+        loadPage(nextCursor, PAGE_SIZE, false);
+    }
 
-            if (typeMatches && dateMatches) {
-                filteredTransactions.add(transaction);
-            }
-        }
+    /**
+     * Reads the rows already shown again, in one page, after they may have changed
+     * elsewhere; the scroll position stays where it was.
+     */
+    private void refreshTransactions() {
+        if (!databaseReady) return;
 
-        adapter.updateTransactions(filteredTransactions);
-        updateTotalLabel();
+        listGeneration++;
+        pageLoading = true;
+        loadPage(null, Math.max(PAGE_SIZE, loaded.size()), true);
+        updateTotal();
     }
 
-    private void updateTotalLabel() {
-        String typeText = currentType.equals("expense") ? "expenses" : "income";
-        totalLabel.setText("Total " + typeText);
+    private void loadPage(TransactionPage.Cursor after, int pageSize, boolean replace) {
+        int generation = listGeneration;
+        String userId = currentUserId;
+        String type = currentType;
+        Date start = startDate;
+        Date end = endDate;
+
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.getTransactionPage(userId, type, start, end, after, pageSize),
+                new AsyncDataManager.Callback<TransactionPage>() {
+                    @Override
+                    public void onResult(TransactionPage page) {
+                        if (generation != listGeneration || isFinishing() || isDestroyed()) return;
+                        pageLoading = false;
+                        nextCursor = page.getNextCursor();
+                        hasMore = page.hasMore();
+
+                        if (replace) {
+                            loaded.clear();
+                            loaded.addAll(page.getItems());
+                            adapter.updateTransactions(loaded);
+                        } else {
+                            loaded.addAll(page.getItems());
+                            adapter.appendTransactions(page.getItems());
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (generation != listGeneration || isFinishing() || isDestroyed()) return;
+                        pageLoading = false;
+                        Toast.makeText(TransactionsActivity.this, "Could not load transactions",
+                                Toast.LENGTH_SHORT).show();
+                    }
+                });
     }
 
     private void updateTotal() {
-        // FILTER BY USER ID
-        List<Transaction> transactions = dataManager.getTransactionsByDateRange(currentUserId, startDate, endDate);
-        double total = 0;
-
-        for (Transaction t : transactions) {
-            if (t.getType().equals(currentType)) {
-                total += t.getAmount();
-            }
-        }
-
-        String totalText = decimalFormat.format(total) + " DH";
-        totalLabel.setText("Total " + (currentType.equals("expense") ? "expenses" : "income") + ": " + totalText);
+        int generation = ++totalGeneration;
+        String userId = currentUserId;
+        String type = currentType;
+        Date start = startDate;
+        Date end = endDate;
+
+        AsyncDataManager.getInstance().submit(
+                dm -> dm.sumTransactions(userId, type, start, end),
+                totalMinor -> {
+                    if (generation != totalGeneration || isFinishing() || isDestroyed()) return;
+                    String totalText = decimalFormat.format(Money.toMajor(totalMinor)) + " DH";
+                    totalLabel.setText("Total " + (type.equals("expense") ? "expenses" : "income") + ": " + totalText);
+                });
     }
 
     private void setupClickListeners() {
@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.os.Bundle;
 import androidx.appcompat.widget.AppCompatButton;
 import androidx.appcompat.app.AppCompatActivity;
+import com.ensias.fundlytest.AppInitializer;
 import com.ensias.fundlytest.R;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
@@ -17,9 +18,6 @@ public class WelcomeActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Initialize Firebase Auth
-        mAuth = FirebaseAuth.getInstance();
-
         setContentView(R.layout.activity_welcome);
 
         if (getSupportActionBar() != null) {
@@ -39,6 +37,14 @@ public class WelcomeActivity extends AppCompatActivity {
     protected void onStart() {
         super.onStart();
 
+        // Firebase initialises in the background, draw first and route once it is ready
+        AppInitializer.getInstance().whenDone(AppInitializer.Stage.FIREBASE, this::routeIfLoggedIn);
+    }
+
+    private void routeIfLoggedIn() {
+        if (isFinishing() || isDestroyed()) return;
+        if (mAuth == null) mAuth = FirebaseAuth.getInstance();
+
         // Check if user is already logged in
         FirebaseUser currentUser = mAuth.getCurrentUser();
         if (currentUser != null) {
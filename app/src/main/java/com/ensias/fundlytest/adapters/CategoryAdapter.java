@@ -10,34 +10,58 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.ensias.fundlytest.FundlyApplication;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.models.Category;
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.utils.IconRegistry;
 
 import java.util.List;
+import java.util.Objects;
 
-public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHolder> {
+public class CategoryAdapter extends ListAdapter<CategoryInfo, CategoryAdapter.ViewHolder> {
 
     private static final String TAG = "CategoryAdapter";
 
-    private List<Category> categories;
+    // CategoryInfo is immutable, so a changed category is always a new instance
+    private static final DiffUtil.ItemCallback<CategoryInfo> DIFF = new DiffUtil.ItemCallback<CategoryInfo>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull CategoryInfo oldItem, @NonNull CategoryInfo newItem) {
+            return Objects.equals(oldItem.getId(), newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull CategoryInfo oldItem, @NonNull CategoryInfo newItem) {
+            return Objects.equals(oldItem.getName(), newItem.getName())
+                    && Objects.equals(oldItem.getIconName(), newItem.getIconName())
+                    && oldItem.getColor() == newItem.getColor()
+                    && oldItem.isDefault() == newItem.isDefault();
+        }
+    };
+
     private CategoryListener listener;
 
     public interface CategoryListener {
-        void onDelete(Category category);
-        void onEdit(Category category);
+        void onDelete(CategoryInfo category);
+        void onEdit(CategoryInfo category);
     }
 
-    public CategoryAdapter(List<Category> categories, CategoryListener listener) {
-        this.categories = categories;
+    public CategoryAdapter(CategoryListener listener) {
+        super(DIFF);
         this.listener = listener;
+        setHasStableIds(true);
     }
 
-    public void updateCategories(List<Category> newCategories) {
-        this.categories = newCategories;
-        notifyDataSetChanged();
+    /** Diffs against the shown list off the main thread; pass a new list, not a mutated one. */
+    public void updateCategories(List<CategoryInfo> newCategories) {
+        submitList(newCategories);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -48,14 +72,13 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
         return new ViewHolder(view);
     }
 
-    private boolean isDefaultCategory(Category c) {
-        String uid = c.getUserId();
-        return uid == null || FundlyApplication.DEFAULT_USER_ID.equals(uid);
+    private boolean isDefaultCategory(CategoryInfo c) {
+        return c.isDefault();
     }
 
     @Override
     public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Category category = categories.get(position);
+        CategoryInfo category = getItem(position);
 
         boolean isDefault = isDefaultCategory(category);
 
@@ -91,21 +114,8 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
         }
 
         // Icon
-        try {
-            int iconResId = holder.itemView.getContext().getResources()
-                    .getIdentifier(category.getIconName(), "drawable",
-                            holder.itemView.getContext().getPackageName());
-
-            if (iconResId != 0) {
-                holder.categoryIcon.setImageResource(iconResId);
-            } else {
-                holder.categoryIcon.setImageResource(android.R.drawable.ic_menu_add);
-            }
-            holder.categoryIcon.setColorFilter(0xFFFFFFFF);
-        } catch (Exception e) {
-            holder.categoryIcon.setImageResource(android.R.drawable.ic_menu_add);
-            holder.categoryIcon.setColorFilter(0xFFFFFFFF);
-        }
+        holder.categoryIcon.setImageResource(IconRegistry.resolve(category.getIconName()));
+        holder.categoryIcon.setColorFilter(0xFFFFFFFF);
 
         // Background color
         View iconBackground = holder.itemView.findViewById(R.id.iconBackground);
@@ -114,11 +124,6 @@ public class CategoryAdapter extends RecyclerView.Adapter<CategoryAdapter.ViewHo
         }
     }
 
-    @Override
-    public int getItemCount() {
-        return categories != null ? categories.size() : 0;
-    }
-
     static class ViewHolder extends RecyclerView.ViewHolder {
         TextView categoryName;
         TextView customizedLabel;
@@ -0,0 +1,166 @@
+package com.ensias.fundlytest.adapters;
+
+import android.content.res.ColorStateList;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.ensias.fundlytest.R;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-category rows of the Reports breakdown. Switching periods diffs the new rows
+ * against the shown ones: rows keep their views, and a row whose share changed only
+ * rebinds its texts and animates its bar to the new width.
+ */
+public class CategoryBreakdownAdapter extends ListAdapter<CategoryBreakdownAdapter.Row, CategoryBreakdownAdapter.ViewHolder> {
+
+    private static final Object PAYLOAD_SHARE = new Object();
+    private static final long BAR_ANIMATION_MS = 250;
+    private static final float MIN_BAR_SCALE = 0.02f;
+
+    private static final DiffUtil.ItemCallback<Row> DIFF = new DiffUtil.ItemCallback<Row>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            return Objects.equals(oldItem.categoryId, newItem.categoryId);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        /** Same category look, different amount: rebind the texts and animate the bar. */
+        @Override
+        public Object getChangePayload(@NonNull Row oldItem, @NonNull Row newItem) {
+            return oldItem.sameLook(newItem) ? PAYLOAD_SHARE : null;
+        }
+    };
+
+    public CategoryBreakdownAdapter() {
+        super(DIFF);
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).categoryId);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_category_expense, parent, false);
+        return new ViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (!payloads.contains(PAYLOAD_SHARE)) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+
+        Row row = getItem(position);
+        bindShare(holder, row);
+        holder.progress.animate().scaleX(barScale(row)).setDuration(BAR_ANIMATION_MS);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        Row row = getItem(position);
+
+        holder.name.setText(row.name);
+        holder.icon.setImageResource(row.iconRes);
+        ColorStateList tint = ColorStateList.valueOf(row.color);
+        holder.icon.setImageTintList(tint);
+        holder.progress.setBackgroundTintList(tint);
+
+        bindShare(holder, row);
+        holder.progress.animate().cancel();
+        holder.progress.setScaleX(barScale(row));
+    }
+
+    private static void bindShare(ViewHolder holder, Row row) {
+        holder.percent.setText(row.percentText);
+        holder.amount.setText(row.amountText);
+    }
+
+    private static float barScale(Row row) {
+        return Math.max(MIN_BAR_SCALE, Math.min(1f, row.share));
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+        TextView name;
+        TextView percent;
+        TextView amount;
+        ImageView icon;
+        View progress;
+
+        ViewHolder(View itemView) {
+            super(itemView);
+            name = itemView.findViewById(R.id.categoryName);
+            percent = itemView.findViewById(R.id.categoryPercent);
+            amount = itemView.findViewById(R.id.categoryAmount);
+            icon = itemView.findViewById(R.id.categoryIcon);
+            progress = itemView.findViewById(R.id.progressBar);
+            progress.setPivotX(0f);
+        }
+    }
+
+    /** One category's line, already formatted. */
+    public static final class Row {
+        final String categoryId;
+        final String name;
+        final int iconRes;
+        final int color;
+        final String amountText;
+        final String percentText;
+        // Fraction of the period total, 0..1
+        final float share;
+
+        public Row(String categoryId, String name, int iconRes, int color,
+                   String amountText, String percentText, float share) {
+            this.categoryId = categoryId;
+            this.name = name;
+            this.iconRes = iconRes;
+            this.color = color;
+            this.amountText = amountText;
+            this.percentText = percentText;
+            this.share = share;
+        }
+
+        boolean sameLook(Row other) {
+            return iconRes == other.iconRes
+                    && color == other.color
+                    && Objects.equals(categoryId, other.categoryId)
+                    && Objects.equals(name, other.name);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Row)) return false;
+            Row other = (Row) o;
+            return sameLook(other)
+                    && Float.compare(share, other.share) == 0
+                    && Objects.equals(amountText, other.amountText)
+                    && Objects.equals(percentText, other.percentText);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(categoryId, name, iconRes, color, amountText, percentText, share);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ensias.fundlytest.adapters;
+
+/** RecyclerView stable ids derived from string primary keys. */
+final class StableIds {
+
+    private StableIds() {
+    }
+
+    /** 64-bit FNV-1a of the key; collisions are negligible at list sizes. */
+    static long of(String key) {
+        if (key == null) return 0;
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
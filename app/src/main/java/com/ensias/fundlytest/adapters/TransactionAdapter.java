@@ -7,37 +7,122 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 import android.widget.TextView;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 import com.ensias.fundlytest.R;
-import com.ensias.fundlytest.database.DataManager;
-import com.ensias.fundlytest.models.Category;
-import com.ensias.fundlytest.models.Transaction;
-import java.text.DecimalFormat;
-import java.text.SimpleDateFormat;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.database.AsyncDataManager;
+import com.ensias.fundlytest.database.CategoryCache;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Transaction rows, built as {@link TransactionRow}s and diffed on a background
+ * thread; binding only copies the row's fields into the views. The adapter keeps
+ * no Realm, only detached transactions.
+ *
+ * It holds one row per transaction it was given, so screens with a long history
+ * hand it pages: {@link #appendTransactions} builds only the new page's rows, and
+ * the rows already shown are shared with the next list and compare by reference.
+ */
+public class TransactionAdapter extends ListAdapter<TransactionRow, TransactionAdapter.ViewHolder> {
+
+    private static final Object PAYLOAD_AMOUNT = new Object();
+    private static final Object PAYLOAD_TITLE = new Object();
+
+    private static final DiffUtil.ItemCallback<TransactionRow> DIFF = new DiffUtil.ItemCallback<TransactionRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TransactionRow oldItem, @NonNull TransactionRow newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TransactionRow oldItem, @NonNull TransactionRow newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        /** Only the amount or the title changed: rebind that text instead of the whole row. */
+        @Override
+        public Object getChangePayload(@NonNull TransactionRow oldItem, @NonNull TransactionRow newItem) {
+            if (oldItem.sameExceptTitle(newItem)) return PAYLOAD_TITLE;
+            if (oldItem.sameExceptAmount(newItem)) return PAYLOAD_AMOUNT;
+            return null;
+        }
+    };
 
-public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.ViewHolder> {
+    // One thread builds rows and runs diffs, so lists are published in submission order
+    private static final Executor ROW_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fundly-diff");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
 
-    private List<Transaction> transactions;
-    private OnTransactionClickListener listener;
-    private DataManager dataManager;
-    private DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
+    private final OnTransactionClickListener listener;
+    private final CategoryCache categoryCache = CategoryCache.getInstance();
+    private final Runnable onCategoriesChanged = this::retitle;
+
+    // Row executor only
+    private final TransactionRowFactory rowFactory;
+    private List<TransactionRow> lastBuilt = Collections.emptyList();
+
+    // Main thread only
+    private boolean released;
 
     public interface OnTransactionClickListener {
-        void onTransactionClick(Transaction transaction);
+        void onTransactionClick(String transactionId);
     }
 
-    public TransactionAdapter(List<Transaction> transactions, OnTransactionClickListener listener) {
-        this.transactions = transactions;
+    public TransactionAdapter(OnTransactionClickListener listener) {
+        super(new AsyncDifferConfig.Builder<>(DIFF).setBackgroundThreadExecutor(ROW_EXECUTOR).build());
         this.listener = listener;
-        this.dataManager = new DataManager();
+        this.rowFactory = new TransactionRowFactory();
+        setHasStableIds(true);
+        categoryCache.addListener(onCategoriesChanged);
+    }
+
+    /** Shows a list of detached transactions. */
+    public void updateTransactions(List<TransactionInfo> newTransactions) {
+        List<TransactionInfo> transactions = new ArrayList<>(newTransactions);
+        ROW_EXECUTOR.execute(() -> {
+            lastBuilt = rowFactory.buildInfos(transactions);
+            publish(lastBuilt);
+        });
+    }
+
+    /** Adds the next page below the rows shown; only the page's rows are built. */
+    public void appendTransactions(List<TransactionInfo> page) {
+        List<TransactionInfo> transactions = new ArrayList<>(page);
+        ROW_EXECUTOR.execute(() -> {
+            List<TransactionRow> rows = new ArrayList<>(lastBuilt.size() + transactions.size());
+            rows.addAll(lastBuilt);
+            rows.addAll(rowFactory.buildInfos(transactions));
+            lastBuilt = rows;
+            publish(lastBuilt);
+        });
+    }
+
+    /** Category names changed: rebuild titles of the newest rows, even if not shown yet. */
+    private void retitle() {
+        ROW_EXECUTOR.execute(() -> {
+            lastBuilt = rowFactory.retitle(lastBuilt);
+            publish(lastBuilt);
+        });
+    }
+
+    private void publish(List<TransactionRow> rows) {
+        AsyncDataManager.getInstance().postToMain(() -> {
+            if (!released) submitList(rows);
+        });
     }
 
-    public void updateTransactions(List<Transaction> newTransactions) {
-        this.transactions = newTransactions;
-        notifyDataSetChanged();
+    @Override
+    public long getItemId(int position) {
+        return StableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -45,83 +130,64 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionAdapter.
     public ViewHolder onCreateViewHolder( ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.transaction_item, parent, false);
-        return new ViewHolder(view);
+        ViewHolder holder = new ViewHolder(view);
+
+        // Set click listener
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (listener != null && position != RecyclerView.NO_POSITION) {
+                listener.onTransactionClick(getItem(position).getId());
+            }
+        });
+        return holder;
     }
 
     @Override
-    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
-        Transaction transaction = transactions.get(position);
-        Category category = dataManager.getCategoryById(transaction.getCategoryId());
-
-        // Set transaction title (category name)
-        if (category != null) {
-            holder.transactionTitle.setText(category.getName());
-        } else {
-            holder.transactionTitle.setText("Transaction");
-        }
-
-        // Set amount with type indicator
-        String amountText = decimalFormat.format(transaction.getAmount()) + " DH";
-        holder.transactionAmount.setText(amountText);
-
-        // Set icon if available
-        if (transaction.getIconName() != null) {
-            try {
-                int resId = holder.itemView.getContext().getResources()
-                        .getIdentifier(transaction.getIconName(), "drawable",
-                                holder.itemView.getContext().getPackageName());
-                if (resId != 0) {
-                    holder.iconImage.setImageResource(resId);
-                    holder.iconImage.setColorFilter(0xFFFFFFFF); // White tint
-                }
-            } catch (Exception e) {
-                holder.iconImage.setImageResource(R.drawable.ic_attach_money);
-                holder.iconImage.setColorFilter(0xFFFFFFFF); // White tint
-            }
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
         }
 
-        // Set color while preserving the circle shape
-        if (transaction.getColor() != 0) {
-            try {
-                GradientDrawable background =
-                        (GradientDrawable) holder.iconBackground.getBackground().mutate();
-                background.setColor(transaction.getColor());
-            } catch (Exception e) {
-                holder.iconBackground.setBackgroundColor(transaction.getColor());
-            }
+        TransactionRow row = getItem(position);
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_AMOUNT) holder.transactionAmount.setText(row.getAmountText());
+            else if (payload == PAYLOAD_TITLE) holder.transactionTitle.setText(row.getTitle());
         }
-
-        // Set click listener
-        holder.itemView.setOnClickListener(v -> {
-            if (listener != null) {
-                listener.onTransactionClick(transaction);
-            }
-        });
     }
 
     @Override
-    public int getItemCount() {
-        return transactions != null ? transactions.size() : 0;
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        TransactionRow row = getItem(position);
+
+        holder.transactionTitle.setText(row.getTitle());
+        holder.transactionAmount.setText(row.getAmountText());
+        holder.iconImage.setImageResource(row.getIconRes());
+        holder.iconImage.setColorFilter(0xFFFFFFFF); // White tint
+        holder.iconCircle.setColor(row.getColor());
     }
 
     static class ViewHolder extends RecyclerView.ViewHolder {
         TextView transactionTitle;
         TextView transactionAmount;
-        View iconBackground;
         ImageView iconImage;
+        // Mutated once per holder so the circle can be recoloured on each bind
+        GradientDrawable iconCircle;
 
         ViewHolder(View itemView) {
             super(itemView);
             transactionTitle = itemView.findViewById(R.id.transactionTitle);
             transactionAmount = itemView.findViewById(R.id.transactionAmount);
-            iconBackground = itemView.findViewById(R.id.iconBackground);
             iconImage = itemView.findViewById(R.id.iconImage);
+            View iconBackground = itemView.findViewById(R.id.iconBackground);
+            iconCircle = (GradientDrawable) iconBackground.getBackground().mutate();
         }
     }
 
-    public void closeDataManager() {
-        if (dataManager != null) {
-            dataManager.close();
-        }
+    /** Stops following category changes; call from the owning activity's onDestroy. */
+    public void release() {
+        released = true;
+        categoryCache.removeListener(onCategoriesChanged);
+        submitList(null);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.ensias.fundlytest.adapters;
+
+import java.util.Objects;
+
+/**
+ * What one transaction row shows, already formatted and resolved, so binding it
+ * is plain field assignment. Built in bulk off the main thread by
+ * {@link TransactionRowFactory}.
+ */
+public final class TransactionRow {
+
+    private final String id;
+    private final String categoryId;
+    private final String title;
+    private final String amountText;
+    private final int iconRes;
+    private final int color;
+    private final String dateLabel;
+
+    TransactionRow(String id, String categoryId, String title, String amountText,
+                   int iconRes, int color, String dateLabel) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.title = title;
+        this.amountText = amountText;
+        this.iconRes = iconRes;
+        this.color = color;
+        this.dateLabel = dateLabel;
+    }
+
+    /** The same row under a renamed category. */
+    TransactionRow withTitle(String newTitle) {
+        if (Objects.equals(title, newTitle)) return this;
+        return new TransactionRow(id, categoryId, newTitle, amountText, iconRes, color, dateLabel);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAmountText() {
+        return amountText;
+    }
+
+    public int getIconRes() {
+        return iconRes;
+    }
+
+    public int getColor() {
+        return color;
+    }
+
+    public String getDateLabel() {
+        return dateLabel;
+    }
+
+    /** Same everything except possibly the title. */
+    boolean sameExceptTitle(TransactionRow other) {
+        return iconRes == other.iconRes
+                && color == other.color
+                && Objects.equals(id, other.id)
+                && Objects.equals(categoryId, other.categoryId)
+                && Objects.equals(amountText, other.amountText)
+                && Objects.equals(dateLabel, other.dateLabel);
+    }
+
+    /** Same everything except possibly the amount. */
+    boolean sameExceptAmount(TransactionRow other) {
+        return iconRes == other.iconRes
+                && color == other.color
+                && Objects.equals(id, other.id)
+                && Objects.equals(categoryId, other.categoryId)
+                && Objects.equals(title, other.title)
+                && Objects.equals(dateLabel, other.dateLabel);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TransactionRow)) return false;
+        TransactionRow other = (TransactionRow) o;
+        return sameExceptTitle(other) && Objects.equals(title, other.title);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, categoryId, title, amountText, iconRes, color, dateLabel);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ensias.fundlytest.adapters;
+
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.database.CategoryCache;
+import com.ensias.fundlytest.utils.IconRegistry;
+
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Turns transactions into {@link TransactionRow}s: category title from
+ * {@link CategoryCache}, formatted amount and date, icon from {@link IconRegistry}.
+ * The formatters are not thread-safe, so one factory is confined to one thread.
+ */
+final class TransactionRowFactory {
+
+    static final int DEFAULT_COLOR = 0xFF6C63FF; // circle_dark_purple
+
+    private final CategoryCache categoryCache = CategoryCache.getInstance();
+    private final DecimalFormat decimalFormat = new DecimalFormat("#,##0.00");
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
+
+    List<TransactionRow> buildInfos(List<TransactionInfo> transactions) {
+        List<TransactionRow> rows = new ArrayList<>(transactions.size());
+        for (TransactionInfo t : transactions) {
+            rows.add(row(t.getId(), t.getCategoryId(), Money.toMajor(t.getAmountMinor()), t.getIconName(),
+                    t.getColor(), t.getDate()));
+        }
+        return rows;
+    }
+
+    private TransactionRow row(String id, String categoryId, double amount, String iconName, int color, Date date) {
+        return new TransactionRow(
+                id,
+                categoryId,
+                title(categoryId),
+                decimalFormat.format(amount) + " DH",
+                IconRegistry.resolve(iconName),
+                color != 0 ? color : DEFAULT_COLOR,
+                date != null ? dateFormat.format(date) : "");
+    }
+
+    /** The rows again with current category names; shares the rows that did not change. */
+    List<TransactionRow> retitle(List<TransactionRow> rows) {
+        List<TransactionRow> retitled = new ArrayList<>(rows.size());
+        for (TransactionRow row : rows) retitled.add(row.withTitle(title(row.getCategoryId())));
+        return retitled;
+    }
+
+    private String title(String categoryId) {
+        return categoryCache.getName(categoryId, "Transaction");
+    }
+}
@@ -0,0 +1,115 @@
+package com.ensias.fundlytest.database;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs DataManager work on one background Realm thread and posts results back
+ * to the main looper. Tasks run in submission order, so a read queued after a
+ * write sees that write.
+ *
+ * Each task gets its own DataManager, closed when the task ends: results must be
+ * plain values, immutable objects or realm.copyFromRealm copies, never managed objects.
+ */
+public final class AsyncDataManager {
+
+    private static final String TAG = "AsyncDataManager";
+
+    public interface Task<T> {
+        T run(DataManager dataManager);
+    }
+
+    public interface Write {
+        void run(DataManager dataManager);
+    }
+
+    public interface Callback<T> {
+        void onResult(T result);
+
+        default void onError(Exception e) {
+            Log.e(TAG, "Background data task failed", e);
+        }
+    }
+
+    private static volatile AsyncDataManager instance;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fundly-realm");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final ExecutorService io = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fundly-io");
+        thread.setPriority(Thread.NORM_PRIORITY - 1);
+        return thread;
+    });
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private AsyncDataManager() {
+    }
+
+    public static AsyncDataManager getInstance() {
+        if (instance == null) {
+            synchronized (AsyncDataManager.class) {
+                if (instance == null) instance = new AsyncDataManager();
+            }
+        }
+        return instance;
+    }
+
+    /** Runs a read (or a write returning a value); callback may be null. */
+    public <T> Future<T> submit(Task<T> task, Callback<T> callback) {
+        return worker.submit(() -> {
+            DataManager dataManager = new DataManager();
+            try {
+                T result = task.run(dataManager);
+                if (callback != null) mainHandler.post(() -> callback.onResult(result));
+                return result;
+            } catch (Exception e) {
+                if (callback != null) mainHandler.post(() -> callback.onError(e));
+                else Log.e(TAG, "Background data task failed", e);
+                throw e;
+            } finally {
+                dataManager.close();
+            }
+        });
+    }
+
+    /** Runs a write; onDone (may be null) is posted to the main thread after the commit. */
+    public Future<Void> execute(Write write, Runnable onDone) {
+        return execute(write, onDone == null ? null : ignored -> onDone.run());
+    }
+
+    /**
+     * Runs a write; the callback's onResult is posted after the commit, its onError
+     * if the write threw (nothing was committed then).
+     */
+    public Future<Void> execute(Write write, Callback<Void> callback) {
+        return submit(dataManager -> {
+            write.run(dataManager);
+            return null;
+        }, callback);
+    }
+
+    /** Runs plain work (no DataManager) on the same ordered background thread. */
+    public Future<?> run(Runnable work) {
+        return worker.submit(work);
+    }
+
+    /**
+     * Runs long work on a separate thread so it does not hold up the Realm worker.
+     * Only for work that reads from its own frozen Realm (exports), or does no Realm access.
+     */
+    public Future<?> runDetached(Runnable work) {
+        return io.submit(work);
+    }
+
+    public void postToMain(Runnable action) {
+        mainHandler.post(action);
+    }
+}
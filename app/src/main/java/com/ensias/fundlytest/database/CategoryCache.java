@@ -0,0 +1,176 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.EffectiveCategories;
+import com.ensias.fundlytest.models.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.realm.OrderedCollectionChangeSet;
+import io.realm.Realm;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Process-wide cache of every category (defaults and user categories), plus each
+ * user's effective list: user categories merged over same-named defaults.
+ *
+ * A change listener on the Category table rebuilds the id map after each commit
+ * and publishes a new snapshot with one volatile write, so readers on any thread
+ * always see a complete state and never touch Realm. The table holds tens of rows,
+ * so the id map is simply rebuilt; effective lists are only dropped for the users
+ * the change set touched (all users when a default changed) and recomputed on the
+ * next read.
+ */
+public final class CategoryCache {
+
+    private static final CategoryCache INSTANCE = new CategoryCache();
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), Collections.emptyMap());
+    private volatile boolean loaded;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    // Kept open for the life of the process, owned by the main thread
+    private Realm realm;
+    private RealmResults<Category> results;
+
+    private CategoryCache() {
+    }
+
+    public static CategoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts watching the Category table. Main thread only; call it after the schema
+     * migration has run elsewhere so opening the Realm here stays cheap.
+     */
+    public void start() {
+        if (results != null) return;
+        realm = Realm.getDefaultInstance();
+        results = realm.where(Category.class)
+                .sort("order", Sort.ASCENDING)
+                .findAllAsync();
+        results.addChangeListener(this::rebuild);
+    }
+
+    private void rebuild(RealmResults<Category> rows, OrderedCollectionChangeSet changeSet) {
+        Snapshot previous = snapshot;
+
+        List<CategoryInfo> ordered = new ArrayList<>(rows.size());
+        Map<String, CategoryInfo> byId = new HashMap<>(rows.size() * 2);
+        for (Category c : rows) {
+            CategoryInfo info = DataManager.toCategoryInfo(c);
+            ordered.add(info);
+            byId.put(info.getId(), info);
+        }
+
+        Snapshot next = new Snapshot(Collections.unmodifiableList(ordered), Collections.unmodifiableMap(byId));
+        if (changeSet.getState() != OrderedCollectionChangeSet.State.INITIAL) {
+            Set<String> touched = touchedUsers(previous, next, changeSet);
+            if (touched != null) {
+                for (Map.Entry<String, Effective> e : previous.effective.entrySet()) {
+                    if (!touched.contains(e.getKey())) next.effective.put(e.getKey(), e.getValue());
+                }
+            }
+        }
+
+        snapshot = next;
+        loaded = true;
+
+        for (Runnable listener : listeners) listener.run();
+    }
+
+    /** Users whose effective list may have changed, or null when a default changed (all users). */
+    private static Set<String> touchedUsers(Snapshot previous, Snapshot next, OrderedCollectionChangeSet changeSet) {
+        Set<String> users = new HashSet<>();
+        for (int index : changeSet.getDeletions()) {
+            if (!addOwner(users, previous.ordered.get(index))) return null;
+        }
+        for (int index : changeSet.getInsertions()) {
+            if (!addOwner(users, next.ordered.get(index))) return null;
+        }
+        for (int index : changeSet.getChanges()) {
+            CategoryInfo now = next.ordered.get(index);
+            if (!addOwner(users, now)) return null;
+            CategoryInfo before = previous.byId.get(now.getId());
+            if (before != null && !addOwner(users, before)) return null;
+        }
+        return users;
+    }
+
+    private static boolean addOwner(Set<String> users, CategoryInfo category) {
+        if (category.isDefault()) return false;
+        users.add(category.getUserId());
+        return true;
+    }
+
+    /** Null when the id is unknown or the cache is not loaded yet. */
+    public CategoryInfo get(String categoryId) {
+        return categoryId == null ? null : snapshot.byId.get(categoryId);
+    }
+
+    public String getName(String categoryId, String fallback) {
+        CategoryInfo category = get(categoryId);
+        return category != null ? category.getName() : fallback;
+    }
+
+    /**
+     * Defaults plus the user's categories of one type, in display order; a user
+     * category replaces a default of the same name. Unmodifiable, shared between
+     * callers: computed once per user and reused until that user's categories change.
+     */
+    public List<CategoryInfo> getEffective(String userId, String type) {
+        Snapshot current = snapshot;
+        String key = userId != null ? userId : "";
+        Effective effective = current.effective.get(key);
+        if (effective == null) {
+            effective = new Effective(current.ordered, userId);
+            current.effective.put(key, effective);
+        }
+        return "income".equals(type) ? effective.income : effective.expense;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Called on the main thread after every rebuild. */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private static final class Snapshot {
+        final List<CategoryInfo> ordered;
+        final Map<String, CategoryInfo> byId;
+        // userId -> resolved lists, filled lazily by readers
+        final Map<String, Effective> effective = new ConcurrentHashMap<>();
+
+        Snapshot(List<CategoryInfo> ordered, Map<String, CategoryInfo> byId) {
+            this.ordered = ordered;
+            this.byId = byId;
+        }
+    }
+
+    private static final class Effective {
+        final List<CategoryInfo> expense;
+        final List<CategoryInfo> income;
+
+        Effective(List<CategoryInfo> ordered, String userId) {
+            expense = EffectiveCategories.resolve(ordered, userId, "expense");
+            income = EffectiveCategories.resolve(ordered, userId, "income");
+        }
+    }
+}
@@ -1,23 +1,38 @@
 package com.ensias.fundlytest.database;
 
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.CategoryStore;
+import com.ensias.fundlytest.core.ColumnarSnapshot;
+import com.ensias.fundlytest.core.DateKeys;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.PeriodSummary;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.core.TransactionPage;
+import com.ensias.fundlytest.core.TransactionStore;
 import com.ensias.fundlytest.models.Category;
+import com.ensias.fundlytest.models.MonthlyRollup;
 import com.ensias.fundlytest.models.Transaction;
 import com.ensias.fundlytest.models.User;
+import com.ensias.fundlytest.utils.IconRegistry;
 
 import io.realm.Realm;
+import io.realm.RealmQuery;
 import io.realm.RealmResults;
 import io.realm.Sort;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
-public class DataManager {
+public class DataManager implements TransactionStore, CategoryStore {
 
-    private static final String DEFAULT_USER_ID = "__DEFAULT__"; // optional, supports future default seeding
+    static final String DEFAULT_USER_ID = CategoryInfo.DEFAULT_USER_ID;
     private Realm realm;
 
     public DataManager() {
@@ -90,6 +105,7 @@ public class DataManager {
 
     public void addCategory(String id, String userId, String name, String type,
                             String iconName, int color, boolean isCustom) {
+        requireKnownIcon(iconName);
         realm.executeTransaction(r -> {
             Category category = r.createObject(Category.class, id);
             category.setUserId(userId);
@@ -102,53 +118,6 @@ public class DataManager {
         });
     }
 
-    /**
-     * ✅ Returns:
-     * - Defaults: userId == null OR userId == "__DEFAULT__"
-     * - Plus user categories: userId == current userId
-     */
-    public List<Category> getCategoriesByType(String userId, String type) {
-        RealmResults<Category> results = realm.where(Category.class)
-                .equalTo("type", type)
-                .beginGroup()
-                .isNull("userId")                   // defaults
-                .or()
-                .equalTo("userId", DEFAULT_USER_ID)  // optional defaults
-                .or()
-                .equalTo("userId", userId)           // user categories
-                .endGroup()
-                .sort("order", Sort.ASCENDING)
-                .findAll();
-
-        // Dedup by (type + name), user version overrides default
-        Map<String, Category> unique = new LinkedHashMap<>();
-
-        for (Category c : results) {
-            String key = (c.getType() + "||" + c.getName()).toLowerCase();
-
-            boolean isUserCat = userId != null && userId.equals(c.getUserId());
-            boolean isDefaultCat = (c.getUserId() == null) || DEFAULT_USER_ID.equals(c.getUserId());
-
-            if (!unique.containsKey(key)) {
-                unique.put(key, c);
-            } else {
-                Category existing = unique.get(key);
-                boolean existingIsDefault =
-                        (existing.getUserId() == null) || DEFAULT_USER_ID.equals(existing.getUserId());
-
-                // If current is user and existing is default => replace
-                if (isUserCat && existingIsDefault) {
-                    unique.put(key, c);
-                }
-
-                // Otherwise keep existing (user already there, or both defaults)
-            }
-        }
-
-        return new ArrayList<>(unique.values());
-    }
-
-
     public List<Category> getAllCategories(String userId) {
         RealmResults<Category> results = realm.where(Category.class)
                 .beginGroup()
@@ -202,7 +171,27 @@ public class DataManager {
                 .findFirst();
     }
 
+    @Override
+    public CategoryInfo getCategoryInfo(String categoryId) {
+        Category category = getCategoryById(categoryId);
+        return category != null ? toCategoryInfo(category) : null;
+    }
+
+    @Override
+    public List<CategoryInfo> getCategoryInfos(String userId) {
+        RealmResults<Category> results = getAllCategoriesRealm(userId);
+        List<CategoryInfo> infos = new ArrayList<>(results.size());
+        for (Category c : results) infos.add(toCategoryInfo(c));
+        return infos;
+    }
+
+    static CategoryInfo toCategoryInfo(Category c) {
+        return new CategoryInfo(c.getId(), c.getUserId(), c.getName(), c.getType(),
+                c.getIconName(), c.getColor(), c.isCustom(), c.getOrder());
+    }
+
     public void updateCategory(String categoryId, String name, String iconName, int color) {
+        requireKnownIcon(iconName);
         realm.executeTransaction(r -> {
             Category category = r.where(Category.class)
                     .equalTo("id", categoryId)
@@ -215,6 +204,13 @@ public class DataManager {
         });
     }
 
+    /** Categories may only reference icons in the generated registry, so lookups never miss. */
+    private static void requireKnownIcon(String iconName) {
+        if (!IconRegistry.contains(iconName)) {
+            throw new IllegalArgumentException("Unknown category icon: " + iconName);
+        }
+    }
+
     public void deleteCategory(String categoryId) {
         realm.executeTransaction(r -> {
             Category category = r.where(Category.class)
@@ -226,19 +222,26 @@ public class DataManager {
 
     // ============ TRANSACTION OPERATIONS ============
 
-    public void addTransaction(String id, String userId, double amount, String categoryId,
+    /** @param amountMinor amount in minor units at {@link Money#DEFAULT_SCALE} */
+    public void addTransaction(String id, String userId, long amountMinor, String categoryId,
                                String type, String note, Date date, int color, String iconName) {
+        TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
         realm.executeTransaction(r -> {
             Transaction transaction = r.createObject(Transaction.class, id);
             transaction.setUserId(userId);
-            transaction.setAmount(amount);
+            transaction.setAmountMinor(amountMinor);
+            transaction.setCurrencyScale(Money.DEFAULT_SCALE);
             transaction.setCategoryId(categoryId);
             transaction.setType(type);
             transaction.setNote(note);
-            transaction.setDate(date);
+            setDate(transaction, date);
             transaction.setColor(color);
             transaction.setIconName(iconName);
+
+            applyToRollup(r, userId, date, type, categoryId, amountMinor, 1);
+            snapshot.put(transaction);
         });
+        publish(snapshot);
     }
 
     public Transaction getTransactionById(String transactionId) {
@@ -247,22 +250,38 @@ public class DataManager {
                 .findFirst();
     }
 
-    public void updateTransaction(String transactionId, double amount, String categoryId,
+    /** A detached copy of one row, or null; for screens that read through AsyncDataManager. */
+    public TransactionInfo getTransactionInfo(String transactionId) {
+        Transaction transaction = getTransactionById(transactionId);
+        return transaction != null ? toTransactionInfo(transaction) : null;
+    }
+
+    /** @param amountMinor amount in minor units at {@link Money#DEFAULT_SCALE} */
+    public void updateTransaction(String transactionId, long amountMinor, String categoryId,
                                   String type, String note, Date date, int color, String iconName) {
+        TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
         realm.executeTransaction(r -> {
             Transaction transaction = r.where(Transaction.class)
                     .equalTo("id", transactionId)
                     .findFirst();
             if (transaction != null) {
-                transaction.setAmount(amount);
+                applyToRollup(r, transaction.getUserId(), transaction.getDate(), transaction.getType(),
+                        transaction.getCategoryId(), -transaction.getNormalizedAmountMinor(), -1);
+
+                transaction.setAmountMinor(amountMinor);
+                transaction.setCurrencyScale(Money.DEFAULT_SCALE);
                 transaction.setCategoryId(categoryId);
                 transaction.setType(type);
                 transaction.setNote(note);
-                transaction.setDate(date);
+                setDate(transaction, date);
                 transaction.setColor(color);
                 transaction.setIconName(iconName);
+
+                applyToRollup(r, transaction.getUserId(), date, type, categoryId, amountMinor, 1);
+                snapshot.put(transaction);
             }
         });
+        publish(snapshot);
     }
 
     public List<Transaction> getAllTransactions(String userId) {
@@ -281,68 +300,627 @@ public class DataManager {
     }
 
     public List<Transaction> getTransactionsByDateRange(String userId, Date startDate, Date endDate) {
-        return realm.where(Transaction.class)
-                .equalTo("userId", userId)
-                .greaterThanOrEqualTo("date", startDate)
-                .lessThan("date", endDate)
+        return rangeQuery(userId, startDate, endDate)
                 .sort("date", Sort.DESCENDING)
                 .findAll();
     }
 
+    @Override
+    public List<TransactionInfo> getTransactions(String userId, String type, Date startDate, Date endDate) {
+        RealmResults<Transaction> results = historyQuery(userId, type, startDate, endDate)
+                .sort("date", Sort.DESCENDING)
+                .findAll();
+
+        List<TransactionInfo> infos = new ArrayList<>(results.size());
+        for (Transaction t : results) infos.add(toTransactionInfo(t));
+        // Already in date order; this only orders rows sharing a date by id
+        infos.sort(TransactionInfo.NEWEST_FIRST);
+        return infos;
+    }
+
+    static TransactionInfo toTransactionInfo(Transaction t) {
+        return new TransactionInfo(t.getId(), t.getUserId(), t.getNormalizedAmountMinor(), t.getCategoryId(),
+                t.getType(), t.getNote(), t.getDate(), t.getColor(), t.getIconName());
+    }
+
+    /** Exact minor-unit total of what {@link #getTransactionPage} pages through for the same arguments. */
+    public long sumTransactions(String userId, String type, Date startDate, Date endDate) {
+        return sumAmountMinor(historyQuery(userId, type, startDate, endDate).findAll());
+    }
+
+    /**
+     * Exact minor-unit total of a result. Rows at the default scale are summed natively
+     * by Realm, any other scale is normalized in Java.
+     */
+    public static long sumAmountMinor(RealmResults<Transaction> results) {
+        Number atDefaultScale = results.where()
+                .equalTo("currencyScale", Money.DEFAULT_SCALE)
+                .sum("amountMinor");
+        long total = atDefaultScale != null ? atDefaultScale.longValue() : 0;
+
+        RealmResults<Transaction> rescaled = results.where()
+                .notEqualTo("currencyScale", Money.DEFAULT_SCALE)
+                .findAll();
+        for (Transaction t : rescaled) total += t.getNormalizedAmountMinor();
+        return total;
+    }
+
+    /**
+     * Keyset-paged history in {@link TransactionInfo#NEWEST_FIRST} order. Pass the
+     * previous page's cursor to continue; type and the date bounds are optional.
+     */
+    @Override
+    public TransactionPage getTransactionPage(String userId, String type, Date startDate, Date endDate,
+                                              TransactionPage.Cursor after, int pageSize) {
+        TransactionPage.requirePageSize(pageSize);
+        // One row past the page tells whether another page follows
+        int wanted = pageSize + 1;
+        List<Transaction> page = new ArrayList<>(wanted);
+        Date upper = null;
+
+        if (after != null) {
+            addDateGroup(page, historyQuery(userId, type, startDate, endDate), after.getDate(),
+                    after.getId(), wanted);
+            upper = after.getDate();
+        }
+
+        while (page.size() < wanted) {
+            RealmQuery<Transaction> query = historyQuery(userId, type, startDate, endDate);
+            if (upper != null) query.lessThan("date", upper);
+
+            RealmResults<Transaction> chunk = query
+                    .sort("date", Sort.DESCENDING)
+                    .limit(wanted - page.size())
+                    .findAll();
+            if (chunk.isEmpty()) break;
+
+            // Every date above the chunk's last date is complete in the chunk; the
+            // last date's group may be cut, so it is re-read and ordered by id in Java.
+            Date boundary = chunk.last().getDate();
+            for (Transaction t : chunk) {
+                if (t.getDate().after(boundary)) page.add(t);
+            }
+            addDateGroup(page, historyQuery(userId, type, startDate, endDate), boundary, null, wanted);
+            upper = boundary;
+        }
+
+        page.sort(HISTORY_ORDER);
+
+        List<TransactionInfo> infos = new ArrayList<>(page.size());
+        for (Transaction t : page) infos.add(toTransactionInfo(t));
+        return TransactionPage.of(infos, pageSize);
+    }
+
+    private static final Comparator<Transaction> HISTORY_ORDER = (a, b) -> {
+        int byDate = b.getDate().compareTo(a.getDate());
+        return byDate != 0 ? byDate : b.getId().compareTo(a.getId());
+    };
+
+    /** Adds rows dated exactly {@code date} with id below {@code beforeId} (if set), id descending. */
+    private void addDateGroup(List<Transaction> page, RealmQuery<Transaction> query, Date date,
+                              String beforeId, int pageSize) {
+        List<Transaction> group = new ArrayList<>(query.equalTo("date", date).findAll());
+        group.sort(HISTORY_ORDER);
+        for (Transaction t : group) {
+            if (page.size() >= pageSize) return;
+            if (beforeId == null || t.getId().compareTo(beforeId) < 0) page.add(t);
+        }
+    }
+
+    private RealmQuery<Transaction> historyQuery(String userId, String type, Date startDate, Date endDate) {
+        RealmQuery<Transaction> query = (startDate != null && endDate != null)
+                ? rangeQuery(userId, startDate, endDate)
+                : realm.where(Transaction.class).equalTo("userId", userId).isNotNull("date");
+        if (type != null) query.equalTo("type", type);
+        return query;
+    }
+
     public void deleteTransaction(String transactionId) {
+        TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
         realm.executeTransaction(r -> {
             Transaction transaction = r.where(Transaction.class)
                     .equalTo("id", transactionId)
                     .findFirst();
-            if (transaction != null) transaction.deleteFromRealm();
+            if (transaction != null) {
+                applyToRollup(r, transaction.getUserId(), transaction.getDate(), transaction.getType(),
+                        transaction.getCategoryId(), -transaction.getNormalizedAmountMinor(), -1);
+                snapshot.remove(transaction.getUserId(), transactionId);
+                transaction.deleteFromRealm();
+            }
         });
+        publish(snapshot);
     }
 
-    // ============ REPORTS & STATISTICS ============
+    /** Hands the rows of a committed write to the in-memory report structures. */
+    private static void publish(TransactionSnapshots.Batch batch) {
+        TransactionSnapshots.getInstance().apply(batch);
+        ReportEngine.getInstance().invalidate(batch.getUserIds());
+    }
 
-    public double getTotalExpenses(String userId, Date startDate, Date endDate) {
-        RealmResults<Transaction> results = realm.where(Transaction.class)
-                .equalTo("userId", userId)
-                .equalTo("type", "expense")
+    /** Sets the date together with its derived, indexed month bucket. */
+    private static void setDate(Transaction transaction, Date date) {
+        transaction.setDate(date);
+        transaction.setMonthKey(date != null ? DateKeys.monthKey(date) : 0);
+    }
+
+    /**
+     * Transactions of a user in [startDate, endDate). Realm only uses indexes for
+     * equality, so the window is first narrowed with an IN on the indexed monthKey.
+     * Bucket keys are computed in the zone the row was written in, so the set is
+     * widened by a month on each side and the date predicate decides membership.
+     */
+    private RealmQuery<Transaction> rangeQuery(String userId, Date startDate, Date endDate) {
+        return rangeQuery(realm, userId, startDate, endDate);
+    }
+
+    /** The same query on any Realm, for RangeQueryBenchmark. */
+    static RealmQuery<Transaction> rangeQuery(Realm realm, String userId, Date startDate, Date endDate) {
+        RealmQuery<Transaction> query = realm.where(Transaction.class)
+                .equalTo("userId", userId);
+
+        Integer[] monthKeys = DateKeys.monthKeysBetween(startDate, endDate, 1);
+        if (monthKeys.length == 0) return query.alwaysFalse();
+
+        return query.in("monthKey", monthKeys)
                 .greaterThanOrEqualTo("date", startDate)
-                .lessThan("date", endDate)
+                .lessThan("date", endDate);
+    }
+
+    /**
+     * Adds (or removes, with negative values) one transaction's contribution to its
+     * monthly rollup. Must be called from inside the write that changes the transaction.
+     */
+    private void applyToRollup(Realm r, String userId, Date date, String type, String categoryId,
+                               long amountMinor, long countDelta) {
+        if (userId == null || date == null || type == null || categoryId == null) return;
+        applyRollupDelta(r, userId, DateKeys.monthKey(date), type, categoryId, amountMinor, countDelta);
+    }
+
+    private static void applyRollupDelta(Realm r, String userId, int monthKey, String type, String categoryId,
+                                         long amountMinor, long countDelta) {
+        String rollupId = MonthlyRollup.buildId(userId, monthKey, type, categoryId);
+
+        MonthlyRollup rollup = r.where(MonthlyRollup.class)
+                .equalTo("id", rollupId)
+                .findFirst();
+
+        if (rollup == null) {
+            if (countDelta <= 0) return;
+            rollup = r.createObject(MonthlyRollup.class, rollupId);
+            rollup.setUserId(userId);
+            rollup.setMonthKey(monthKey);
+            rollup.setType(type);
+            rollup.setCategoryId(categoryId);
+        }
+
+        long count = rollup.getCount() + countDelta;
+        if (count <= 0) {
+            rollup.deleteFromRealm();
+            return;
+        }
+        rollup.setCount(count);
+        rollup.setTotalMinor(rollup.getTotalMinor() + amountMinor);
+    }
+
+    // ============ BATCH OPERATIONS ============
+
+    /**
+     * Rows per write transaction for the batch methods. Each chunk is one commit:
+     * large enough to amortise the commit and fsync, small enough that the write
+     * lock is released regularly and the Realm file does not balloon mid-import.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /** Inserts the rows (id generated when null), one write per chunk. */
+    public int addTransactions(Collection<TransactionInfo> transactions) {
+        return addTransactions(transactions, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public int addTransactions(Collection<TransactionInfo> transactions, int chunkSize) {
+        forEachChunk(transactions, chunkSize, chunk -> {
+            TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
+            realm.executeTransaction(r -> {
+                RollupBatch rollups = new RollupBatch();
+                for (TransactionInfo source : chunk) {
+                    String id = source.getId() != null ? source.getId() : UUID.randomUUID().toString();
+                    Transaction transaction = r.createObject(Transaction.class, id);
+                    transaction.setUserId(source.getUserId());
+                    copyFields(source, transaction);
+                    rollups.add(transaction, 1);
+                    snapshot.put(transaction);
+                }
+                rollups.apply(r);
+            });
+            publish(snapshot);
+        });
+        return transactions.size();
+    }
+
+    /** Applies new values, matched by id, one write per chunk. */
+    public int updateTransactions(Collection<TransactionInfo> transactions) {
+        return updateTransactions(transactions, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public int updateTransactions(Collection<TransactionInfo> transactions, int chunkSize) {
+        int[] updated = {0};
+        forEachChunk(transactions, chunkSize, chunk -> {
+            TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
+            realm.executeTransaction(r -> {
+                RollupBatch rollups = new RollupBatch();
+                for (TransactionInfo source : chunk) {
+                    Transaction transaction = r.where(Transaction.class)
+                            .equalTo("id", source.getId())
+                            .findFirst();
+                    if (transaction == null) continue;
+
+                    rollups.add(transaction, -1);
+                    copyFields(source, transaction);
+                    rollups.add(transaction, 1);
+                    snapshot.put(transaction);
+                    updated[0]++;
+                }
+                rollups.apply(r);
+            });
+            publish(snapshot);
+        });
+        return updated[0];
+    }
+
+    public int deleteTransactions(Collection<String> transactionIds) {
+        return deleteTransactions(transactionIds, DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public int deleteTransactions(Collection<String> transactionIds, int chunkSize) {
+        int[] deleted = {0};
+        forEachChunk(transactionIds, chunkSize, chunk -> {
+            TransactionSnapshots.Batch snapshot = new TransactionSnapshots.Batch();
+            realm.executeTransaction(r -> {
+                RealmResults<Transaction> rows = r.where(Transaction.class)
+                        .in("id", chunk.toArray(new String[0]))
+                        .findAll();
+
+                RollupBatch rollups = new RollupBatch();
+                for (Transaction transaction : rows) {
+                    rollups.add(transaction, -1);
+                    snapshot.remove(transaction.getUserId(), transaction.getId());
+                }
+                deleted[0] += rows.size();
+                rows.deleteAllFromRealm();
+                rollups.apply(r);
+            });
+            publish(snapshot);
+        });
+        return deleted[0];
+    }
+
+    /** Copies every user-editable field, keeping the date buckets in sync. */
+    private static void copyFields(TransactionInfo source, Transaction target) {
+        target.setAmountMinor(source.getAmountMinor());
+        target.setCurrencyScale(Money.DEFAULT_SCALE);
+        target.setCategoryId(source.getCategoryId());
+        target.setType(source.getType());
+        target.setNote(source.getNote());
+        setDate(target, source.getDate());
+        target.setColor(source.getColor());
+        target.setIconName(source.getIconName());
+    }
+
+    private static <T> void forEachChunk(Collection<T> items, int chunkSize, ChunkWriter<T> writer) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be > 0");
+
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, items.size()));
+        for (T item : items) {
+            chunk.add(item);
+            if (chunk.size() == chunkSize) {
+                writer.write(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) writer.write(chunk);
+    }
+
+    private interface ChunkWriter<T> {
+        void write(List<T> chunk);
+    }
+
+    /** Rollup deltas of one chunk, merged per rollup row and applied once at the end of the write. */
+    private static class RollupBatch {
+        private final Map<String, RollupDelta> deltas = new HashMap<>();
+
+        void add(Transaction t, int sign) {
+            if (t.getUserId() == null || t.getDate() == null || t.getType() == null
+                    || t.getCategoryId() == null) return;
+
+            int monthKey = DateKeys.monthKey(t.getDate());
+            String id = MonthlyRollup.buildId(t.getUserId(), monthKey, t.getType(), t.getCategoryId());
+            RollupDelta delta = deltas.get(id);
+            if (delta == null) {
+                delta = new RollupDelta(t.getUserId(), monthKey, t.getType(), t.getCategoryId());
+                deltas.put(id, delta);
+            }
+            delta.amountMinor += sign * t.getNormalizedAmountMinor();
+            delta.count += sign;
+        }
+
+        void apply(Realm r) {
+            for (RollupDelta d : deltas.values()) {
+                if (d.count == 0 && d.amountMinor == 0) continue;
+                applyRollupDelta(r, d.userId, d.monthKey, d.type, d.categoryId, d.amountMinor, d.count);
+            }
+        }
+    }
+
+    private static class RollupDelta {
+        final String userId;
+        final int monthKey;
+        final String type;
+        final String categoryId;
+        long amountMinor;
+        long count;
+
+        RollupDelta(String userId, int monthKey, String type, String categoryId) {
+            this.userId = userId;
+            this.monthKey = monthKey;
+            this.type = type;
+            this.categoryId = categoryId;
+        }
+    }
+
+    // ============ REPORTS & STATISTICS ============
+
+    /** Totals are in minor units at {@link Money#DEFAULT_SCALE}. */
+    public long getTotalExpenses(String userId, Date startDate, Date endDate) {
+        return getTotalByType(userId, "expense", startDate, endDate);
+    }
+
+    public long getTotalIncome(String userId, Date startDate, Date endDate) {
+        return getTotalByType(userId, "income", startDate, endDate);
+    }
+
+    /** Minor-unit sums per category id for one type; callers resolve names once per distinct id. */
+    public Map<String, Long> getCategoryBreakdown(String userId, Date startDate, Date endDate, String type) {
+        Map<String, Long> indexed = TransactionSnapshots.getInstance()
+                .getCategoryBreakdown(userId, startDate, endDate, type);
+        if (indexed != null) return indexed;
+
+        Map<String, long[]> sums = new HashMap<>();
+        if (!TransactionInfo.isReportedType(type)) return toBreakdown(sums);
+
+        Date fullStart = DateKeys.ceilToMonth(startDate);
+        Date fullEnd = DateKeys.floorToMonth(endDate);
+
+        if (!fullStart.before(fullEnd)) {
+            scanBreakdown(sums, userId, type, startDate, endDate);
+            return toBreakdown(sums);
+        }
+
+        scanBreakdown(sums, userId, type, startDate, fullStart);
+        scanBreakdown(sums, userId, type, fullEnd, endDate);
+
+        RealmResults<MonthlyRollup> rollups = rollupQuery(userId, type, fullStart, fullEnd).findAll();
+        for (MonthlyRollup rollup : rollups) {
+            accumulate(sums, rollup.getCategoryId(), rollup.getTotalMinor());
+        }
+        return toBreakdown(sums);
+    }
+
+    /**
+     * Income, expenses, transaction count and per-category sums for the window. From the
+     * user's snapshot once it is built; otherwise in one walk: whole months come from the
+     * rollups, edge days are scanned once.
+     */
+    public PeriodSummary getPeriodSummary(String userId, Date startDate, Date endDate) {
+        PeriodSummary indexed = TransactionSnapshots.getInstance().getPeriodSummary(userId, startDate, endDate);
+        if (indexed != null) return indexed;
+
+        SummaryAccumulator acc = new SummaryAccumulator();
+
+        Date fullStart = DateKeys.ceilToMonth(startDate);
+        Date fullEnd = DateKeys.floorToMonth(endDate);
+
+        if (!fullStart.before(fullEnd)) {
+            scanSummary(acc, userId, startDate, endDate);
+        } else {
+            scanSummary(acc, userId, startDate, fullStart);
+            scanSummary(acc, userId, fullEnd, endDate);
+
+            RealmResults<MonthlyRollup> rollups = realm.where(MonthlyRollup.class)
+                    .equalTo("userId", userId)
+                    .greaterThanOrEqualTo("monthKey", DateKeys.monthKey(fullStart))
+                    .lessThan("monthKey", DateKeys.monthKey(fullEnd))
+                    .findAll();
+            for (MonthlyRollup rollup : rollups) {
+                acc.add(rollup.getType(), rollup.getCategoryId(), rollup.getTotalMinor(), rollup.getCount());
+            }
+        }
+
+        return new PeriodSummary(acc.income, acc.expenses, acc.count,
+                toBreakdown(acc.incomeByCategoryId), toBreakdown(acc.expenseByCategoryId));
+    }
+
+    /**
+     * Summaries of consecutive periods, period i being [bounds[i], bounds[i + 1]) with
+     * bounds ascending, read in one query over the combined span: the rollups when
+     * every bound is a month start, the transactions otherwise.
+     */
+    public List<PeriodSummary> getPeriodSummaries(String userId, Date[] bounds) {
+        int periods = bounds.length - 1;
+        SummaryAccumulator[] accs = new SummaryAccumulator[periods];
+        for (int p = 0; p < periods; p++) accs[p] = new SummaryAccumulator();
+
+        boolean monthAligned = true;
+        for (Date bound : bounds) monthAligned &= DateKeys.floorToMonth(bound).equals(bound);
+
+        if (monthAligned) {
+            int[] monthKeys = new int[bounds.length];
+            for (int i = 0; i < bounds.length; i++) monthKeys[i] = DateKeys.monthKey(bounds[i]);
+
+            RealmResults<MonthlyRollup> rollups = realm.where(MonthlyRollup.class)
+                    .equalTo("userId", userId)
+                    .greaterThanOrEqualTo("monthKey", monthKeys[0])
+                    .lessThan("monthKey", monthKeys[periods])
+                    .findAll();
+            for (MonthlyRollup rollup : rollups) {
+                int p = periodOf(monthKeys, rollup.getMonthKey());
+                accs[p].add(rollup.getType(), rollup.getCategoryId(), rollup.getTotalMinor(), rollup.getCount());
+            }
+        } else {
+            long[] millis = new long[bounds.length];
+            for (int i = 0; i < bounds.length; i++) millis[i] = bounds[i].getTime();
+
+            RealmResults<Transaction> transactions = rangeQuery(userId, bounds[0], bounds[periods]).findAll();
+            for (Transaction t : transactions) {
+                int p = periodOf(millis, t.getDate().getTime());
+                accs[p].add(t.getType(), t.getCategoryId(), t.getNormalizedAmountMinor(), 1);
+            }
+        }
+
+        List<PeriodSummary> summaries = new ArrayList<>(periods);
+        for (SummaryAccumulator acc : accs) {
+            summaries.add(new PeriodSummary(acc.income, acc.expenses, acc.count,
+                    toBreakdown(acc.incomeByCategoryId), toBreakdown(acc.expenseByCategoryId)));
+        }
+        return summaries;
+    }
+
+    /** Index of the period holding value; value must lie in [bounds[0], bounds[last]). */
+    private static int periodOf(int[] bounds, int value) {
+        int i = Arrays.binarySearch(bounds, value);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private static int periodOf(long[] bounds, long value) {
+        int i = Arrays.binarySearch(bounds, value);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private void scanSummary(SummaryAccumulator acc, String userId, Date startDate, Date endDate) {
+        if (!startDate.before(endDate)) return;
+
+        RealmResults<Transaction> transactions = rangeQuery(userId, startDate, endDate)
                 .findAll();
 
-        double total = 0;
-        for (Transaction t : results) total += t.getAmount();
-        return total;
+        for (Transaction t : transactions) {
+            acc.add(t.getType(), t.getCategoryId(), t.getNormalizedAmountMinor(), 1);
+        }
     }
 
-    public double getTotalIncome(String userId, Date startDate, Date endDate) {
-        RealmResults<Transaction> results = realm.where(Transaction.class)
+    private static class SummaryAccumulator {
+        long income;
+        long expenses;
+        long count;
+        final Map<String, long[]> incomeByCategoryId = new HashMap<>();
+        final Map<String, long[]> expenseByCategoryId = new HashMap<>();
+
+        /** Rows of any type other than income and expense are left out, count included. */
+        void add(String type, String categoryId, long amount, long rows) {
+            if ("income".equals(type)) {
+                income += amount;
+                accumulate(incomeByCategoryId, categoryId, amount);
+            } else if ("expense".equals(type)) {
+                expenses += amount;
+                accumulate(expenseByCategoryId, categoryId, amount);
+            } else {
+                return;
+            }
+            count += rows;
+        }
+    }
+
+    /**
+     * Whole months inside [startDate, endDate) are answered from the rollup table,
+     * only the partial months at either edge are scanned.
+     */
+    private long getTotalByType(String userId, String type, Date startDate, Date endDate) {
+        // O(log days) from the day index once the user's snapshot is built
+        Long indexed = TransactionSnapshots.getInstance().getTotal(userId, type, startDate, endDate);
+        if (indexed != null) return indexed;
+
+        Date fullStart = DateKeys.ceilToMonth(startDate);
+        Date fullEnd = DateKeys.floorToMonth(endDate);
+
+        if (!fullStart.before(fullEnd)) {
+            return scanTotal(userId, type, startDate, endDate);
+        }
+
+        long total = scanTotal(userId, type, startDate, fullStart)
+                + scanTotal(userId, type, fullEnd, endDate);
+
+        Number rolledUp = rollupQuery(userId, type, fullStart, fullEnd).sum("totalMinor");
+        return total + (rolledUp != null ? rolledUp.longValue() : 0);
+    }
+
+    private RealmQuery<MonthlyRollup> rollupQuery(String userId, String type, Date fullStart, Date fullEnd) {
+        return realm.where(MonthlyRollup.class)
                 .equalTo("userId", userId)
-                .equalTo("type", "income")
-                .greaterThanOrEqualTo("date", startDate)
-                .lessThan("date", endDate)
+                .equalTo("type", type)
+                .greaterThanOrEqualTo("monthKey", DateKeys.monthKey(fullStart))
+                .lessThan("monthKey", DateKeys.monthKey(fullEnd));
+    }
+
+    private long scanTotal(String userId, String type, Date startDate, Date endDate) {
+        if (!startDate.before(endDate)) return 0;
+
+        RealmResults<Transaction> results = rangeQuery(userId, startDate, endDate)
+                .equalTo("type", type)
                 .findAll();
 
-        double total = 0;
-        for (Transaction t : results) total += t.getAmount();
+        long total = 0;
+        for (Transaction t : results) total += t.getNormalizedAmountMinor();
         return total;
     }
 
-    public Map<String, Double> getCategoryBreakdown(String userId, Date startDate, Date endDate, String type) {
-        RealmResults<Transaction> transactions = realm.where(Transaction.class)
-                .equalTo("userId", userId)
+    private void scanBreakdown(Map<String, long[]> sums, String userId, String type,
+                               Date startDate, Date endDate) {
+        if (!startDate.before(endDate)) return;
+
+        RealmResults<Transaction> transactions = rangeQuery(userId, startDate, endDate)
                 .equalTo("type", type)
-                .greaterThanOrEqualTo("date", startDate)
-                .lessThan("date", endDate)
                 .findAll();
 
-        Map<String, Double> breakdown = new HashMap<>();
         for (Transaction t : transactions) {
-            Category category = getCategoryById(t.getCategoryId());
-            String categoryName = category != null ? category.getName() : "Other";
-            breakdown.put(categoryName, breakdown.getOrDefault(categoryName, 0.0) + t.getAmount());
+            accumulate(sums, t.getCategoryId(), t.getNormalizedAmountMinor());
+        }
+    }
+
+    private static void accumulate(Map<String, long[]> sums, String categoryId, long amount) {
+        long[] sum = sums.get(categoryId);
+        if (sum == null) {
+            sum = new long[1];
+            sums.put(categoryId, sum);
+        }
+        sum[0] += amount;
+    }
+
+    private static Map<String, Long> toBreakdown(Map<String, long[]> sums) {
+        Map<String, Long> breakdown = new HashMap<>(sums.size() * 2);
+        for (Map.Entry<String, long[]> e : sums.entrySet()) {
+            breakdown.put(e.getKey(), e.getValue()[0]);
         }
         return breakdown;
     }
 
+    /** Reads all of the user's dated, reported transactions into a new columnar snapshot, oldest first. */
+    ColumnarSnapshot buildSnapshot(String userId) {
+        RealmResults<Transaction> rows = realm.where(Transaction.class)
+                .equalTo("userId", userId)
+                .isNotNull("date")
+                .in("type", new String[]{TransactionInfo.INCOME, TransactionInfo.EXPENSE})
+                .sort("date", Sort.ASCENDING)
+                .findAll();
+
+        ColumnarSnapshot snapshot = new ColumnarSnapshot(rows.size());
+        for (Transaction t : rows) {
+            // Appends: rows arrive in date order
+            snapshot.put(t.getId(), t.getDate().getTime(), t.getNormalizedAmountMinor(),
+                    t.getCategoryId(), "income".equals(t.getType()));
+        }
+        return snapshot;
+    }
+
     public void close() {
         if (realm != null && !realm.isClosed()) realm.close();
     }
@@ -0,0 +1,150 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.models.MonthlyRollup;
+import com.ensias.fundlytest.core.DateKeys;
+import com.ensias.fundlytest.core.Money;
+
+import java.util.Date;
+
+import io.realm.DynamicRealm;
+import io.realm.DynamicRealmObject;
+import io.realm.FieldAttribute;
+import io.realm.RealmMigration;
+import io.realm.RealmObjectSchema;
+import io.realm.RealmResults;
+import io.realm.RealmSchema;
+
+/**
+ * Schema migrations for fundly.realm, applied step by step from the stored version.
+ *
+ * 1 -> 2: MonthlyRollup table, backfilled from the existing rows (double totals).
+ * 2 -> 3: Transaction.amount (double) becomes amountMinor (long) + currencyScale,
+ *         rollups are rebuilt in minor units.
+ * 3 -> 4: indexed monthKey bucket on Transaction.
+ * 4 -> 5: data only, one-off category fixup that used to run on every launch:
+ *         defaults without an owner get "__DEFAULT__", user categories are custom.
+ * 5 -> 6: drops Transaction.epochDay, which 3 -> 4 used to add; no query reads it.
+ *
+ * The schema version stored in the file is the data version marker too: a
+ * data-only step bumps SCHEMA_VERSION and runs exactly once per install.
+ */
+public class FundlyMigration implements RealmMigration {
+
+    public static final long SCHEMA_VERSION = 6;
+
+    @Override
+    public void migrate(DynamicRealm realm, long oldVersion, long newVersion) {
+        RealmSchema schema = realm.getSchema();
+
+        if (oldVersion < 2) {
+            schema.create("MonthlyRollup")
+                    .addField("id", String.class, FieldAttribute.PRIMARY_KEY)
+                    .addField("userId", String.class, FieldAttribute.REQUIRED, FieldAttribute.INDEXED)
+                    .addField("monthKey", int.class, FieldAttribute.INDEXED)
+                    .addField("type", String.class, FieldAttribute.REQUIRED)
+                    .addField("categoryId", String.class, FieldAttribute.REQUIRED)
+                    .addField("total", double.class)
+                    .addField("count", long.class);
+            rebuildRollups(realm, false);
+        }
+
+        if (oldVersion < 3) {
+            RealmObjectSchema transaction = schema.get("Transaction");
+            transaction.addField("amountMinor", long.class)
+                    .addField("currencyScale", int.class)
+                    .transform(obj -> {
+                        obj.setLong("amountMinor", Money.fromMajor(obj.getDouble("amount")));
+                        obj.setInt("currencyScale", Money.DEFAULT_SCALE);
+                    })
+                    .removeField("amount");
+
+            RealmObjectSchema rollup = schema.get("MonthlyRollup");
+            rollup.addField("totalMinor", long.class)
+                    .removeField("total");
+
+            // Double totals can't be converted exactly, rebuild them from the rows
+            realm.delete("MonthlyRollup");
+            rebuildRollups(realm, true);
+        }
+
+        if (oldVersion < 4) {
+            schema.get("Transaction")
+                    .addField("monthKey", int.class, FieldAttribute.INDEXED)
+                    .transform(obj -> {
+                        Date date = obj.getDate("date");
+                        if (date != null) obj.setInt("monthKey", DateKeys.monthKey(date));
+                    });
+        }
+
+        if (oldVersion < 5) {
+            normalizeCategories(realm);
+        }
+
+        if (oldVersion < 6) {
+            // Only files that went through the old 3 -> 4 step have it
+            RealmObjectSchema transaction = schema.get("Transaction");
+            if (transaction.hasField("epochDay")) transaction.removeField("epochDay");
+        }
+    }
+
+    private void normalizeCategories(DynamicRealm realm) {
+        RealmResults<DynamicRealmObject> categories = realm.where("Category").findAll();
+
+        for (DynamicRealmObject c : categories) {
+            String uid = c.getString("userId");
+
+            if (uid == null || uid.trim().isEmpty()) {
+                // Old default seeded without an owner
+                c.setString("userId", DataManager.DEFAULT_USER_ID);
+                c.setBoolean("isCustom", false);
+            } else if (!DataManager.DEFAULT_USER_ID.equals(uid) && !c.getBoolean("isCustom")) {
+                c.setBoolean("isCustom", true);
+            }
+        }
+    }
+
+    /** Sums every transaction into its month's rollup, as "total" (double) or "totalMinor". */
+    private void rebuildRollups(DynamicRealm realm, boolean minorUnits) {
+        RealmResults<DynamicRealmObject> transactions = realm.where("Transaction").findAll();
+
+        for (DynamicRealmObject t : transactions) {
+            String userId = t.getString("userId");
+            Date date = t.getDate("date");
+            String type = t.getString("type");
+            String categoryId = t.getString("categoryId");
+            if (userId == null || date == null || type == null || categoryId == null) continue;
+
+            int monthKey = DateKeys.monthKey(date);
+            String rollupId = MonthlyRollup.buildId(userId, monthKey, type, categoryId);
+
+            DynamicRealmObject rollup = realm.where("MonthlyRollup")
+                    .equalTo("id", rollupId)
+                    .findFirst();
+            if (rollup == null) {
+                rollup = realm.createObject("MonthlyRollup", rollupId);
+                rollup.setString("userId", userId);
+                rollup.setInt("monthKey", monthKey);
+                rollup.setString("type", type);
+                rollup.setString("categoryId", categoryId);
+            }
+
+            if (minorUnits) {
+                long amountMinor = Money.normalize(t.getLong("amountMinor"), t.getInt("currencyScale"));
+                rollup.setLong("totalMinor", rollup.getLong("totalMinor") + amountMinor);
+            } else {
+                rollup.setDouble("total", rollup.getDouble("total") + t.getDouble("amount"));
+            }
+            rollup.setLong("count", rollup.getLong("count") + 1);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof FundlyMigration;
+    }
+
+    @Override
+    public int hashCode() {
+        return FundlyMigration.class.hashCode();
+    }
+}
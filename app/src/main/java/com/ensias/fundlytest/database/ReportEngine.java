@@ -0,0 +1,161 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.core.PeriodSummary;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Period summaries for the Reports date tabs, cached by (user, period type,
+ * period start).
+ *
+ * {@link #load} computes every visible period in one pass over their combined
+ * span, from the user's snapshot when it is built and from Realm otherwise, so
+ * switching tabs afterwards is a cache hit. DataManager calls {@link #invalidate}
+ * after each committed transaction write; a load that was already running when
+ * the data changed still reports its result but does not cache it.
+ */
+public final class ReportEngine {
+
+    private static final ReportEngine INSTANCE = new ReportEngine();
+
+    // Guarded by this
+    private final Map<Key, PeriodSummary> cache = new HashMap<>();
+    private final Map<String, Integer> generations = new HashMap<>();
+
+    // Main thread only: loads in flight, keyed by their first period
+    private final Map<Key, Pending> loading = new HashMap<>();
+
+    private ReportEngine() {
+    }
+
+    public static ReportEngine getInstance() {
+        return INSTANCE;
+    }
+
+    /** Null when the period is not cached. */
+    public synchronized PeriodSummary getCached(String userId, String periodType, Date periodStart) {
+        return cache.get(new Key(userId, periodType, periodStart.getTime()));
+    }
+
+    /**
+     * Computes and caches the periods [bounds[i], bounds[i + 1]), bounds ascending.
+     * The callback gets the summaries keyed by period start millis, on the main thread.
+     * Main thread only; a load already running for the same periods and the same
+     * data is joined.
+     */
+    public void load(String userId, String periodType, Date[] bounds,
+                     AsyncDataManager.Callback<Map<Long, PeriodSummary>> callback) {
+        Key loadKey = new Key(userId, periodType, bounds[0].getTime());
+        int generation = generation(userId);
+        Pending pending = loading.get(loadKey);
+        if (pending != null && pending.generation == generation) {
+            pending.callbacks.add(callback);
+            return;
+        }
+        pending = new Pending(generation);
+        pending.callbacks.add(callback);
+        loading.put(loadKey, pending);
+
+        Pending current = pending;
+        AsyncDataManager.getInstance().submit(dm -> {
+            List<PeriodSummary> summaries = TransactionSnapshots.getInstance().getPeriodSummaries(userId, bounds);
+            if (summaries == null) summaries = dm.getPeriodSummaries(userId, bounds);
+
+            Map<Long, PeriodSummary> byStart = new HashMap<>();
+            for (int i = 0; i < summaries.size(); i++) byStart.put(bounds[i].getTime(), summaries.get(i));
+            store(userId, periodType, generation, byStart);
+            return byStart;
+        }, new AsyncDataManager.Callback<Map<Long, PeriodSummary>>() {
+            @Override
+            public void onResult(Map<Long, PeriodSummary> result) {
+                for (AsyncDataManager.Callback<Map<Long, PeriodSummary>> c : finish(loadKey, current)) {
+                    c.onResult(result);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                for (AsyncDataManager.Callback<Map<Long, PeriodSummary>> c : finish(loadKey, current)) {
+                    c.onError(e);
+                }
+            }
+        });
+    }
+
+    private List<AsyncDataManager.Callback<Map<Long, PeriodSummary>>> finish(Key loadKey, Pending pending) {
+        // A newer load for the same key may have replaced this one
+        if (loading.get(loadKey) == pending) loading.remove(loadKey);
+        return pending.callbacks;
+    }
+
+    private synchronized void store(String userId, String periodType, int generation,
+                                    Map<Long, PeriodSummary> byStart) {
+        if (generation(userId) != generation) return; // data changed while computing
+        for (Map.Entry<Long, PeriodSummary> e : byStart.entrySet()) {
+            cache.put(new Key(userId, periodType, e.getKey()), e.getValue());
+        }
+    }
+
+    /** Drops the cached periods of these users. */
+    public synchronized void invalidate(Collection<String> userIds) {
+        if (userIds.isEmpty()) return;
+        for (String userId : userIds) generations.put(userId, generation(userId) + 1);
+
+        Iterator<Key> keys = cache.keySet().iterator();
+        while (keys.hasNext()) {
+            if (userIds.contains(keys.next().userId)) keys.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    private synchronized int generation(String userId) {
+        Integer generation = generations.get(userId);
+        return generation != null ? generation : 0;
+    }
+
+    private static final class Pending {
+        final int generation;
+        final List<AsyncDataManager.Callback<Map<Long, PeriodSummary>>> callbacks = new ArrayList<>();
+
+        Pending(int generation) {
+            this.generation = generation;
+        }
+    }
+
+    private static final class Key {
+        final String userId;
+        final String periodType;
+        final long periodStart;
+
+        Key(String userId, String periodType, long periodStart) {
+            this.userId = userId;
+            this.periodType = periodType;
+            this.periodStart = periodStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return periodStart == other.periodStart
+                    && Objects.equals(userId, other.userId)
+                    && Objects.equals(periodType, other.periodType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, periodType, periodStart);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.CategoryStore;
+import com.ensias.fundlytest.core.Money;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.core.TransactionStore;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Imports a bank statement CSV into a user's transactions.
+ *
+ * The file is read through a fixed-size char buffer one record at a time and
+ * rows are committed in chunks of {@link DataManager#DEFAULT_BATCH_SIZE}, so memory
+ * use depends on the chunk size, not on the file size.
+ *
+ * Expected header (case-insensitive, any order): date, amount, and optionally
+ * type, category, note. Without a type column the sign of the amount decides:
+ * negative is an expense, positive an income. Categories are resolved by name;
+ * unknown names become custom categories of the user.
+ *
+ * Rows that cannot be read (bad date or amount, an unterminated quote, a field
+ * over the length cap) are skipped and counted; reading resumes at the next line.
+ *
+ * Must run off the UI thread, typically through {@link AsyncDataManager#submit}.
+ */
+public class TransactionCsvImporter {
+
+    public interface ProgressListener {
+        /** Called after each committed chunk, on the importing thread. */
+        void onProgress(long rowsImported, long bytesRead);
+    }
+
+    public static final class Result {
+        private final long imported;
+        private final long skipped;
+        private final int createdCategories;
+
+        Result(long imported, long skipped, int createdCategories) {
+            this.imported = imported;
+            this.skipped = skipped;
+            this.createdCategories = createdCategories;
+        }
+
+        public long getImported() { return imported; }
+        public long getSkipped() { return skipped; }
+        public int getCreatedCategories() { return createdCategories; }
+    }
+
+    private static final int BUFFER_CHARS = 16 * 1024;
+    private static final int MAX_FIELD_CHARS = 4 * 1024;
+
+    private static final String FALLBACK_CATEGORY = "Imported";
+    private static final String FALLBACK_ICON = "ic_monetization";
+    private static final int FALLBACK_COLOR = 0xFF9E9E9E;
+
+    // Longest first: a pattern must consume the whole text to match
+    private static final String[] DATE_PATTERNS = {"yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd", "dd/MM/yyyy"};
+
+    private final TransactionStore transactionStore;
+    private final CategoryStore categoryStore;
+    private final String userId;
+    private final int chunkSize;
+
+    private final List<SimpleDateFormat> dateFormats = new ArrayList<>();
+    // type||lower(name) -> category; bounded by the number of distinct categories
+    private final Map<String, CategoryRef> categories = new HashMap<>();
+    // name -> the user's category, else the default; loaded on the first row
+    private Map<String, CategoryInfo> existingByName;
+    private int createdCategories;
+
+    public TransactionCsvImporter(DataManager dataManager, String userId) {
+        this(dataManager, userId, DataManager.DEFAULT_BATCH_SIZE);
+    }
+
+    public TransactionCsvImporter(DataManager dataManager, String userId, int chunkSize) {
+        this(dataManager, dataManager, userId, chunkSize);
+    }
+
+    TransactionCsvImporter(TransactionStore transactionStore, CategoryStore categoryStore,
+                           String userId, int chunkSize) {
+        this.transactionStore = transactionStore;
+        this.categoryStore = categoryStore;
+        this.userId = userId;
+        this.chunkSize = chunkSize;
+
+        for (String pattern : DATE_PATTERNS) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern, Locale.US);
+            format.setLenient(false);
+            dateFormats.add(format);
+        }
+    }
+
+    /** Reads the whole stream; the caller closes it. Malformed rows are skipped and counted. */
+    public Result importFrom(InputStream input, ProgressListener listener) throws IOException {
+        CountingInputStream counting = new CountingInputStream(input);
+        CsvReader csv = new CsvReader(new InputStreamReader(counting, StandardCharsets.UTF_8));
+
+        List<String> record = new ArrayList<>();
+        if (!csv.next(record)) return new Result(0, 0, 0);
+        if (csv.isMalformed()) throw new IOException("Malformed CSV header");
+        Columns columns = Columns.fromHeader(record);
+
+        List<TransactionInfo> chunk = new ArrayList<>(chunkSize);
+        long imported = 0;
+        long skipped = 0;
+
+        while (csv.next(record)) {
+            if (csv.isMalformed()) {
+                skipped++;
+                continue;
+            }
+            if (record.size() == 1 && record.get(0).trim().isEmpty()) continue; // blank line
+
+            TransactionInfo transaction = toTransaction(record, columns);
+            if (transaction == null) {
+                skipped++;
+                continue;
+            }
+
+            chunk.add(transaction);
+            if (chunk.size() == chunkSize) {
+                imported += transactionStore.addTransactions(chunk, chunkSize);
+                chunk.clear();
+                if (listener != null) listener.onProgress(imported, counting.count);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            imported += transactionStore.addTransactions(chunk, chunkSize);
+            if (listener != null) listener.onProgress(imported, counting.count);
+        }
+
+        return new Result(imported, skipped, createdCategories);
+    }
+
+    private TransactionInfo toTransaction(List<String> record, Columns columns) {
+        Date date = parseDate(columns.get(record, columns.date));
+        Long signedMinor = parseAmount(columns.get(record, columns.amount));
+        if (date == null || signedMinor == null) return null;
+
+        String type = normalizeType(columns.get(record, columns.type));
+        if (type == null) type = signedMinor < 0 ? "expense" : "income";
+
+        String categoryName = columns.get(record, columns.category);
+        if (categoryName == null || categoryName.trim().isEmpty()) categoryName = FALLBACK_CATEGORY;
+        CategoryRef category = resolveCategory(categoryName.trim(), type);
+
+        return new TransactionInfo(UUID.randomUUID().toString(), userId, Math.abs(signedMinor), category.id,
+                type, columns.get(record, columns.note), date, category.color, category.iconName);
+    }
+
+    /** Null unless one of the patterns matches the whole text. */
+    Date parseDate(String text) {
+        if (text == null) return null;
+        String trimmed = text.trim();
+        for (SimpleDateFormat format : dateFormats) {
+            ParsePosition position = new ParsePosition(0);
+            Date date = format.parse(trimmed, position);
+            if (date != null && position.getIndex() == trimmed.length()) return date;
+        }
+        return null;
+    }
+
+    /**
+     * Signed minor units, or null for a malformed amount. Whichever of ',' and '.'
+     * comes last is the decimal separator and the other one groups thousands, so
+     * "1,234.50" and "1.234,50" both read 1234.50. A lone separator followed by
+     * exactly three digits ("1,234") could be either and is rejected, as is any
+     * amount with more than two fraction digits.
+     */
+    static Long parseAmount(String text) {
+        if (text == null) return null;
+        String cleaned = text.replace(" ", "").replace("\u00A0", "").replace("\u202F", "");
+
+        boolean negative = cleaned.startsWith("-");
+        if (negative || cleaned.startsWith("+")) cleaned = cleaned.substring(1);
+
+        int comma = cleaned.lastIndexOf(',');
+        int dot = cleaned.lastIndexOf('.');
+        int decimal = -1;
+        char grouping = 0;
+        if (comma >= 0 && dot >= 0) {
+            decimal = Math.max(comma, dot);
+            grouping = decimal == comma ? '.' : ',';
+        } else if (comma >= 0 || dot >= 0) {
+            char separator = comma >= 0 ? ',' : '.';
+            int last = Math.max(comma, dot);
+            if (cleaned.indexOf(separator) != last) {
+                grouping = separator; // "1,234,567": only repeated as grouping
+            } else if (cleaned.length() - last - 1 == 3) {
+                return null; // "1,234": grouping or three decimals, can't tell
+            } else {
+                decimal = last;
+            }
+        }
+
+        String integer = decimal >= 0 ? cleaned.substring(0, decimal) : cleaned;
+        String fraction = decimal >= 0 ? cleaned.substring(decimal + 1) : "";
+        if (!isGroupedDigits(integer, grouping)) return null;
+        if (decimal >= 0 && (fraction.isEmpty() || fraction.length() > 2 || !isDigits(fraction))) return null;
+
+        String plain = integer.replace(String.valueOf(grouping), "") + (fraction.isEmpty() ? "" : "." + fraction);
+        try {
+            long minor = Money.parseMinor(plain);
+            return negative ? -minor : minor;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /** Digits, grouped by three with {@code grouping} when it is not 0. */
+    private static boolean isGroupedDigits(String text, char grouping) {
+        if (grouping == 0) return isDigits(text);
+
+        String[] groups = text.split(Pattern.quote(String.valueOf(grouping)), -1);
+        if (groups[0].isEmpty() || groups[0].length() > 3 || !isDigits(groups[0])) return false;
+        for (int i = 1; i < groups.length; i++) {
+            if (groups[i].length() != 3 || !isDigits(groups[i])) return false;
+        }
+        return true;
+    }
+
+    private static boolean isDigits(String text) {
+        if (text.isEmpty()) return false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static String normalizeType(String text) {
+        if (text == null) return null;
+        String lower = text.trim().toLowerCase(Locale.ROOT);
+        if (lower.startsWith("inc") || lower.equals("credit")) return "income";
+        if (lower.startsWith("exp") || lower.equals("debit")) return "expense";
+        return null;
+    }
+
+    private CategoryRef resolveCategory(String name, String type) {
+        String key = type + "||" + name.toLowerCase(Locale.ROOT);
+        CategoryRef cached = categories.get(key);
+        if (cached != null) return cached;
+
+        CategoryInfo existing = existingCategories().get(name);
+        CategoryRef ref;
+        if (existing != null && type.equals(existing.getType())) {
+            ref = new CategoryRef(existing.getId(), existing.getColor(), existing.getIconName());
+        } else {
+            String id = UUID.randomUUID().toString();
+            categoryStore.addCategory(id, userId, name, type, FALLBACK_ICON, FALLBACK_COLOR, true);
+            ref = new CategoryRef(id, FALLBACK_COLOR, FALLBACK_ICON);
+            createdCategories++;
+        }
+
+        categories.put(key, ref);
+        return ref;
+    }
+
+    private Map<String, CategoryInfo> existingCategories() {
+        if (existingByName == null) {
+            existingByName = new HashMap<>();
+            for (CategoryInfo c : categoryStore.getCategoryInfos(userId)) {
+                if (c.isDefault()) existingByName.putIfAbsent(c.getName(), c);
+                else existingByName.put(c.getName(), c);
+            }
+        }
+        return existingByName;
+    }
+
+    private static final class CategoryRef {
+        final String id;
+        final int color;
+        final String iconName;
+
+        CategoryRef(String id, int color, String iconName) {
+            this.id = id;
+            this.color = color;
+            this.iconName = iconName;
+        }
+    }
+
+    /** Column positions from the header row, -1 when absent. */
+    private static final class Columns {
+        int date = -1, amount = -1, type = -1, category = -1, note = -1;
+
+        static Columns fromHeader(List<String> header) throws IOException {
+            Columns columns = new Columns();
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (i == 0 && name.startsWith("\uFEFF")) name = name.substring(1);
+                switch (name) {
+                    case "date": columns.date = i; break;
+                    case "amount": columns.amount = i; break;
+                    case "type": columns.type = i; break;
+                    case "category": columns.category = i; break;
+                    case "note":
+                    case "description":
+                    case "label": columns.note = i; break;
+                }
+            }
+            if (columns.date < 0 || columns.amount < 0) {
+                throw new IOException("CSV header must contain 'date' and 'amount' columns");
+            }
+            return columns;
+        }
+
+        String get(List<String> record, int index) {
+            return index >= 0 && index < record.size() ? record.get(index) : null;
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields, doubled quotes and line breaks inside
+     * quotes. Reads through a fixed buffer and caps field length so a stray quote
+     * cannot pull the rest of the file into memory.
+     *
+     * A record with an unterminated quote or an over-long field is returned empty
+     * and flagged {@link #isMalformed}. Reading then resumes at the first line break
+     * after the bad quote (the raw text from there is kept and read again), or at
+     * the end of the line for an over-long unquoted field.
+     */
+    static final class CsvReader {
+        private final Reader reader;
+        private final char[] buffer = new char[BUFFER_CHARS];
+        private final StringBuilder field = new StringBuilder();
+        private int position;
+        private int limit;
+
+        // Raw text read after the first line break inside the current quoted field
+        private StringBuilder replay;
+        // Text to read again before the buffer, after a resync
+        private String pending = "";
+        private int pendingPosition;
+        private boolean malformed;
+
+        CsvReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        /** Fills record with the next row's fields; false at end of input. */
+        boolean next(List<String> record) throws IOException {
+            record.clear();
+            field.setLength(0);
+            malformed = false;
+
+            int c = read();
+            if (c < 0) return false;
+
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) return abandon(record);
+                    if (c == '"') {
+                        int peek = read();
+                        if (peek != '"') {
+                            quoted = false;
+                            replay = null;
+                            c = peek;
+                            continue;
+                        }
+                    } else if (c == '\n' && replay == null) {
+                        replay = new StringBuilder();
+                    }
+                    if (field.length() >= MAX_FIELD_CHARS) return abandon(record);
+                    field.append((char) c);
+                } else if (c < 0 || c == '\n') {
+                    record.add(field.toString());
+                    return true;
+                } else if (c == '\r') {
+                    // dropped, '\n' (or EOF) ends the row
+                } else if (c == ',') {
+                    record.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else {
+                    if (field.length() >= MAX_FIELD_CHARS) return abandon(record);
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        /** True when the record last returned by {@link #next} could not be read. */
+        boolean isMalformed() {
+            return malformed;
+        }
+
+        /** Drops the current record and moves to where the next one can start. */
+        private boolean abandon(List<String> record) throws IOException {
+            record.clear();
+            field.setLength(0);
+            malformed = true;
+
+            if (replay != null) {
+                pending = replay + pending.substring(pendingPosition);
+                pendingPosition = 0;
+                replay = null;
+            } else {
+                int c;
+                do {
+                    c = read();
+                } while (c >= 0 && c != '\n');
+            }
+            return true;
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pendingPosition < pending.length()) {
+                c = pending.charAt(pendingPosition++);
+            } else {
+                if (position == limit) {
+                    limit = reader.read(buffer, 0, buffer.length);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return -1;
+                    }
+                }
+                c = buffer[position++];
+            }
+            if (replay != null) replay.append((char) c);
+            return c;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
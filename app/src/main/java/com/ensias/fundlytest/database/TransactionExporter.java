@@ -0,0 +1,251 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.models.Category;
+import com.ensias.fundlytest.models.Transaction;
+import com.ensias.fundlytest.core.Money;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import io.realm.Realm;
+import io.realm.RealmResults;
+import io.realm.Sort;
+
+/**
+ * Streams a user's categories and transactions to a byte channel as CSV or JSON.
+ *
+ * Works on a frozen Realm snapshot, so it can run on any background thread
+ * without holding up the Realm worker or seeing half-applied writes. Rows are
+ * read lazily from RealmResults and encoded into one fixed byte buffer; nothing
+ * is copied out of Realm except the category id -> name map.
+ *
+ * The CSV layout is the one {@link TransactionCsvImporter} reads back.
+ */
+public class TransactionExporter {
+
+    public enum Format { CSV, JSON }
+
+    public interface ProgressListener {
+        /** Called every {@link #PROGRESS_INTERVAL} rows, on the exporting thread. */
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 5_000;
+
+    private final String userId;
+    private final Format format;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.US);
+    private final StringBuilder scratch = new StringBuilder();
+
+    public TransactionExporter(String userId, Format format) {
+        this.userId = userId;
+        this.format = format;
+    }
+
+    /** Freezes the default Realm and exports from it; returns the number of transactions written. */
+    public long export(WritableByteChannel channel, ProgressListener listener) throws IOException {
+        Realm live = Realm.getDefaultInstance();
+        Realm frozen = live.freeze();
+        live.close();
+        try {
+            return export(frozen, channel, listener);
+        } finally {
+            frozen.close();
+        }
+    }
+
+    public long export(Realm frozen, WritableByteChannel channel, ProgressListener listener) throws IOException {
+        RealmResults<Category> categories = frozen.where(Category.class)
+                .beginGroup()
+                .isNull("userId")
+                .or()
+                .equalTo("userId", DataManager.DEFAULT_USER_ID)
+                .or()
+                .equalTo("userId", userId)
+                .endGroup()
+                .sort("order", Sort.ASCENDING)
+                .findAll();
+
+        Map<String, String> categoryNames = new HashMap<>(categories.size() * 2);
+        for (Category c : categories) categoryNames.put(c.getId(), c.getName());
+
+        RealmResults<Transaction> transactions = frozen.where(Transaction.class)
+                .equalTo("userId", userId)
+                .sort("date", Sort.ASCENDING)
+                .findAll();
+
+        ChannelWriter out = new ChannelWriter(channel);
+        long written = format == Format.CSV
+                ? writeCsv(out, transactions, categoryNames, listener)
+                : writeJson(out, categories, transactions, categoryNames, listener);
+        out.flush();
+        return written;
+    }
+
+    private long writeCsv(ChannelWriter out, RealmResults<Transaction> transactions,
+                          Map<String, String> categoryNames, ProgressListener listener) throws IOException {
+        out.append("date,amount,type,category,note\n");
+
+        long total = transactions.size();
+        long written = 0;
+        for (Transaction t : transactions) {
+            out.append(t.getDate() != null ? dateFormat.format(t.getDate()) : "").append(',');
+            out.append(Money.toPlainString(t.getAmountMinor(), t.getCurrencyScale())).append(',');
+            out.append(t.getType()).append(',');
+            appendCsvField(out, categoryNames.get(t.getCategoryId()));
+            out.append(',');
+            appendCsvField(out, t.getNote());
+            out.append('\n');
+
+            if (++written % PROGRESS_INTERVAL == 0 && listener != null) listener.onProgress(written, total);
+        }
+        return written;
+    }
+
+    private long writeJson(ChannelWriter out, RealmResults<Category> categories,
+                           RealmResults<Transaction> transactions, Map<String, String> categoryNames,
+                           ProgressListener listener) throws IOException {
+        out.append("{\"categories\":[");
+        boolean first = true;
+        for (Category c : categories) {
+            if (!first) out.append(',');
+            first = false;
+            out.append("\n{\"id\":");
+            appendJsonString(out, c.getId());
+            out.append(",\"name\":");
+            appendJsonString(out, c.getName());
+            out.append(",\"type\":");
+            appendJsonString(out, c.getType());
+            out.append(",\"icon\":");
+            appendJsonString(out, c.getIconName());
+            out.append(",\"color\":").append(Integer.toString(c.getColor()));
+            out.append(",\"custom\":").append(c.isCustom() ? "true" : "false").append('}');
+        }
+
+        out.append("],\n\"transactions\":[");
+        long total = transactions.size();
+        long written = 0;
+        for (Transaction t : transactions) {
+            if (written > 0) out.append(',');
+            out.append("\n{\"id\":");
+            appendJsonString(out, t.getId());
+            out.append(",\"date\":");
+            appendJsonString(out, t.getDate() != null ? dateFormat.format(t.getDate()) : null);
+            out.append(",\"amount\":").append(Money.toPlainString(t.getAmountMinor(), t.getCurrencyScale()));
+            out.append(",\"type\":");
+            appendJsonString(out, t.getType());
+            out.append(",\"categoryId\":");
+            appendJsonString(out, t.getCategoryId());
+            out.append(",\"category\":");
+            appendJsonString(out, categoryNames.get(t.getCategoryId()));
+            out.append(",\"note\":");
+            appendJsonString(out, t.getNote());
+            out.append('}');
+
+            if (++written % PROGRESS_INTERVAL == 0 && listener != null) listener.onProgress(written, total);
+        }
+        out.append("\n]}\n");
+        return written;
+    }
+
+    private void appendCsvField(ChannelWriter out, String value) throws IOException {
+        if (value == null) return;
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        scratch.setLength(0);
+        scratch.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') scratch.append('"');
+            scratch.append(c);
+        }
+        out.append(scratch.append('"'));
+    }
+
+    private void appendJsonString(ChannelWriter out, String value) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        scratch.setLength(0);
+        scratch.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': scratch.append("\\\""); break;
+                case '\\': scratch.append("\\\\"); break;
+                case '\n': scratch.append("\\n"); break;
+                case '\r': scratch.append("\\r"); break;
+                case '\t': scratch.append("\\t"); break;
+                default:
+                    if (c < 0x20) scratch.append(String.format(Locale.US, "\\u%04x", (int) c));
+                    else scratch.append(c);
+            }
+        }
+        out.append(scratch.append('"'));
+    }
+
+    /** UTF-8 encodes into one reusable buffer and drains it to the channel when full. */
+    private static final class ChannelWriter {
+        private final WritableByteChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final CharBuffer single = CharBuffer.allocate(1);
+
+        ChannelWriter(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        ChannelWriter append(CharSequence text) throws IOException {
+            encode(CharBuffer.wrap(text));
+            return this;
+        }
+
+        /** ASCII only, escaped values go through append(CharSequence) so surrogate pairs stay together. */
+        ChannelWriter append(char c) throws IOException {
+            single.clear();
+            single.put(c).flip();
+            encode(single);
+            return this;
+        }
+
+        private void encode(CharBuffer chars) throws IOException {
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, false);
+                if (result.isOverflow()) {
+                    drain();
+                } else if (result.isUnderflow()) {
+                    return;
+                } else {
+                    result.throwException();
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            encoder.encode(CharBuffer.allocate(0), bytes, true);
+            encoder.flush(bytes);
+            drain();
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) channel.write(bytes);
+            bytes.clear();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.ensias.fundlytest.database;
+
+import android.util.Log;
+
+import com.ensias.fundlytest.core.ColumnarSnapshot;
+import com.ensias.fundlytest.core.PeriodSummary;
+import com.ensias.fundlytest.core.TransactionInfo;
+import com.ensias.fundlytest.models.Transaction;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optional in-memory {@link ColumnarSnapshot} of a logged-in user's transactions,
+ * so Reports can answer range queries without going through Realm.
+ *
+ * {@link #warmUp} builds the snapshot once on the Realm worker; until it is ready
+ * readers get null and fall back to DataManager. DataManager hands every committed
+ * write to {@link #apply}; writes that land while the snapshot is being built are
+ * queued and replayed on top of it. Replaying is safe even for rows the build
+ * already read, because a put replaces the row with the same id.
+ */
+public final class TransactionSnapshots {
+
+    private static final String TAG = "TransactionSnapshots";
+    private static final TransactionSnapshots INSTANCE = new TransactionSnapshots();
+
+    // Guarded by this
+    private final Map<String, ColumnarSnapshot> ready = new HashMap<>();
+    private final Map<String, List<Op>> building = new HashMap<>();
+
+    private TransactionSnapshots() {
+    }
+
+    public static TransactionSnapshots getInstance() {
+        return INSTANCE;
+    }
+
+    /** Starts building the user's snapshot in the background if it does not exist yet. */
+    public void warmUp(String userId) {
+        synchronized (this) {
+            if (userId == null || ready.containsKey(userId) || building.containsKey(userId)) return;
+            building.put(userId, new ArrayList<>());
+        }
+
+        AsyncDataManager.getInstance().submit(dm -> {
+            try {
+                install(userId, dm.buildSnapshot(userId));
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    building.remove(userId);
+                }
+                Log.e(TAG, "Snapshot build failed", e);
+            }
+            return null;
+        }, null);
+    }
+
+    private synchronized void install(String userId, ColumnarSnapshot snapshot) {
+        List<Op> pending = building.remove(userId);
+        if (pending == null) return; // cleared while building
+        for (Op op : pending) op.applyTo(snapshot);
+        ready.put(userId, snapshot);
+    }
+
+    /** Drops every snapshot, e.g. on logout. */
+    public synchronized void clear() {
+        ready.clear();
+        building.clear();
+    }
+
+    /** Null until the user's snapshot is built. */
+    public synchronized PeriodSummary getPeriodSummary(String userId, Date startDate, Date endDate) {
+        ColumnarSnapshot snapshot = ready.get(userId);
+        return snapshot != null ? snapshot.getPeriodSummary(startDate.getTime(), endDate.getTime()) : null;
+    }
+
+    /** Null until the user's snapshot is built; see {@link ColumnarSnapshot#getPeriodSummaries}. */
+    public synchronized List<PeriodSummary> getPeriodSummaries(String userId, Date[] bounds) {
+        ColumnarSnapshot snapshot = ready.get(userId);
+        if (snapshot == null) return null;
+
+        long[] millis = new long[bounds.length];
+        for (int i = 0; i < bounds.length; i++) millis[i] = bounds[i].getTime();
+        return snapshot.getPeriodSummaries(millis);
+    }
+
+    /** Null until the user's snapshot is built. */
+    public synchronized Long getTotal(String userId, String type, Date startDate, Date endDate) {
+        ColumnarSnapshot snapshot = ready.get(userId);
+        return snapshot != null
+                ? snapshot.getTotal("income".equals(type), startDate.getTime(), endDate.getTime())
+                : null;
+    }
+
+    /** Null until the user's snapshot is built. */
+    public synchronized Map<String, Long> getCategoryBreakdown(String userId, Date startDate, Date endDate,
+                                                               String type) {
+        ColumnarSnapshot snapshot = ready.get(userId);
+        if (snapshot == null) return null;
+        if (!TransactionInfo.isReportedType(type)) return new HashMap<>();
+        return snapshot.getBreakdown("income".equals(type), startDate.getTime(), endDate.getTime());
+    }
+
+    /** Publishes the changes of one committed write. */
+    synchronized void apply(Batch batch) {
+        for (Op op : batch.ops) {
+            ColumnarSnapshot snapshot = ready.get(op.userId);
+            if (snapshot != null) {
+                op.applyTo(snapshot);
+                continue;
+            }
+            List<Op> pending = building.get(op.userId);
+            if (pending != null) pending.add(op);
+        }
+    }
+
+    /**
+     * Row changes collected inside a Realm write and applied after it commits, so
+     * a rolled-back write never reaches the snapshot.
+     */
+    static final class Batch {
+        private final List<Op> ops = new ArrayList<>();
+
+        /** Reads the row's current values; call after the fields are set. */
+        void put(Transaction t) {
+            if (t.getUserId() == null) return;
+            if (t.getDate() == null || !TransactionInfo.isReportedType(t.getType())) {
+                remove(t.getUserId(), t.getId());
+                return;
+            }
+            ops.add(new Op(t.getUserId(), t.getId(), t.getDate().getTime(), t.getNormalizedAmountMinor(),
+                    t.getCategoryId(), "income".equals(t.getType())));
+        }
+
+        void remove(String userId, String transactionId) {
+            if (userId != null) ops.add(new Op(userId, transactionId));
+        }
+
+        Set<String> getUserIds() {
+            Set<String> userIds = new HashSet<>();
+            for (Op op : ops) userIds.add(op.userId);
+            return userIds;
+        }
+    }
+
+    private static final class Op {
+        final String userId;
+        final String transactionId;
+        final boolean delete;
+        final long date;
+        final long amountMinor;
+        final String categoryId;
+        final boolean income;
+
+        Op(String userId, String transactionId) {
+            this(userId, transactionId, true, 0, 0, null, false);
+        }
+
+        Op(String userId, String transactionId, long date, long amountMinor, String categoryId, boolean income) {
+            this(userId, transactionId, false, date, amountMinor, categoryId, income);
+        }
+
+        private Op(String userId, String transactionId, boolean delete, long date, long amountMinor,
+                   String categoryId, boolean income) {
+            this.userId = userId;
+            this.transactionId = transactionId;
+            this.delete = delete;
+            this.date = date;
+            this.amountMinor = amountMinor;
+            this.categoryId = categoryId;
+            this.income = income;
+        }
+
+        void applyTo(ColumnarSnapshot snapshot) {
+            if (delete) snapshot.remove(transactionId);
+            else snapshot.put(transactionId, date, amountMinor, categoryId, income);
+        }
+    }
+}
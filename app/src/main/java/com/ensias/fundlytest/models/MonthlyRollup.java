@@ -0,0 +1,61 @@
+package com.ensias.fundlytest.models;
+
+import io.realm.RealmObject;
+import io.realm.annotations.Index;
+import io.realm.annotations.PrimaryKey;
+import io.realm.annotations.Required;
+
+/**
+ * Running total of a user's transactions for one (month, type, category).
+ * Kept in sync by DataManager inside the same write as the transaction itself.
+ */
+public class MonthlyRollup extends RealmObject {
+
+    @PrimaryKey
+    private String id; // userId|monthKey|type|categoryId
+
+    @Required
+    @Index
+    private String userId;
+
+    @Index
+    private int monthKey; // year * 12 + month
+
+    @Required
+    private String type; // "income" or "expense"
+
+    @Required
+    private String categoryId;
+
+    private long totalMinor; // at Money.DEFAULT_SCALE
+    private long count;
+
+    public MonthlyRollup() {
+    }
+
+    public static String buildId(String userId, int monthKey, String type, String categoryId) {
+        return userId + "|" + monthKey + "|" + type + "|" + categoryId;
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public int getMonthKey() { return monthKey; }
+    public void setMonthKey(int monthKey) { this.monthKey = monthKey; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getCategoryId() { return categoryId; }
+    public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
+
+    public long getTotalMinor() { return totalMinor; }
+    public void setTotalMinor(long totalMinor) { this.totalMinor = totalMinor; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
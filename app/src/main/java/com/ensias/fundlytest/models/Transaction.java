@@ -1,5 +1,7 @@
 package com.ensias.fundlytest.models;
 
+import com.ensias.fundlytest.core.Money;
+
 import io.realm.RealmObject;
 import io.realm.annotations.PrimaryKey;
 import io.realm.annotations.Required;
@@ -15,7 +17,8 @@ public class Transaction extends RealmObject {
     @Index
     private String userId;
 
-    private double amount;
+    private long amountMinor;   // amount in minor units (e.g. centimes)
+    private int currencyScale;  // decimal digits of amountMinor
 
     @Required
     private String categoryId;
@@ -24,6 +27,10 @@ public class Transaction extends RealmObject {
     private String type; // "income" or "expense"
 
     private Date date;
+
+    // Derived from date by DataManager, indexed for range queries
+    @Index
+    private int monthKey;
     private String note;
     private String iconName;
     private int color;
@@ -31,9 +38,10 @@ public class Transaction extends RealmObject {
     public Transaction() {
     }
 
-    public Transaction(double amount, String categoryId, String type, String note) {
+    public Transaction(long amountMinor, String categoryId, String type, String note) {
         this.id = UUID.randomUUID().toString();
-        this.amount = amount;
+        this.amountMinor = amountMinor;
+        this.currencyScale = Money.DEFAULT_SCALE;
         this.categoryId = categoryId;
         this.type = type;
         this.note = note;
@@ -47,8 +55,17 @@ public class Transaction extends RealmObject {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
-    public double getAmount() { return amount; }
-    public void setAmount(double amount) { this.amount = amount; }
+    public long getAmountMinor() { return amountMinor; }
+    public void setAmountMinor(long amountMinor) { this.amountMinor = amountMinor; }
+
+    public int getCurrencyScale() { return currencyScale; }
+    public void setCurrencyScale(int currencyScale) { this.currencyScale = currencyScale; }
+
+    /** Amount in minor units at {@link Money#DEFAULT_SCALE}, use this for any sum. */
+    public long getNormalizedAmountMinor() { return Money.normalize(amountMinor, currencyScale); }
+
+    /** Amount in major units, for display only. */
+    public double getAmount() { return Money.toMajor(amountMinor, currencyScale); }
 
     public String getCategoryId() { return categoryId; }
     public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
@@ -59,6 +76,9 @@ public class Transaction extends RealmObject {
     public Date getDate() { return date; }
     public void setDate(Date date) { this.date = date; }
 
+    public int getMonthKey() { return monthKey; }
+    public void setMonthKey(int monthKey) { this.monthKey = monthKey; }
+
     public String getNote() { return note; }
     public void setNote(String note) { this.note = note; }
 
@@ -0,0 +1,69 @@
+package com.ensias.fundlytest.utils;
+
+import com.github.mikephil.charting.data.PieData;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Built Reports pies per (period type, period start, report type), so going back to
+ * a tab puts the same {@link PieData} on the chart instead of rebuilding it. An entry
+ * is reused only while its breakdown equals the one being shown. Category names and
+ * colours are baked in, so {@link #clear} it when categories change. Main thread only.
+ */
+public final class PieChartCache {
+
+    // 3 period types x 6 date tabs x 2 report types
+    private static final int MAX_ENTRIES = 36;
+
+    public interface Builder {
+        /** Null when there is nothing to draw. */
+        PieData build(Map<String, Long> breakdown);
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    /** The pie for this breakdown: the cached one if its breakdown is unchanged, else a new one. */
+    public PieData get(String periodType, long periodStart, String reportType,
+                       Map<String, Long> breakdown, Builder builder) {
+        String key = key(periodType, periodStart, reportType);
+        Map<String, Long> values = breakdown != null ? breakdown : new HashMap<>();
+
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.breakdown.equals(values)) {
+            entry = new Entry(new HashMap<>(values), builder.build(values));
+            entries.put(key, entry);
+        }
+        return entry.data;
+    }
+
+    /** The last pie built for this period, possibly stale; null if there is none. */
+    public PieData peek(String periodType, long periodStart, String reportType) {
+        Entry entry = entries.get(key(periodType, periodStart, reportType));
+        return entry != null ? entry.data : null;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static String key(String periodType, long periodStart, String reportType) {
+        return periodType + '|' + periodStart + '|' + reportType;
+    }
+
+    private static final class Entry {
+        final Map<String, Long> breakdown;
+        final PieData data;
+
+        Entry(Map<String, Long> breakdown, PieData data) {
+            this.breakdown = breakdown;
+            this.data = data;
+        }
+    }
+}
@@ -3,6 +3,9 @@ package com.ensias.fundlytest.utils;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import com.ensias.fundlytest.database.ReportEngine;
+import com.ensias.fundlytest.database.TransactionSnapshots;
+
 public class SessionManager {
 
     private static final String PREF_NAME = "FundlySession";
@@ -54,5 +57,7 @@ public class SessionManager {
     public void logout() {
         editor.clear();
         editor.commit();
+        TransactionSnapshots.getInstance().clear();
+        ReportEngine.getInstance().clear();
     }
 }
\ No newline at end of file
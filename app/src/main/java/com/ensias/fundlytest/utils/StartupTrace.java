@@ -0,0 +1,63 @@
+package com.ensias.fundlytest.utils;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timing of the application start stages. Each stage is logged under the
+ * "FundlyStartup" tag with its duration, its offset from process start and the
+ * thread it ran on, and is also emitted as a Trace section for Perfetto/systrace.
+ *
+ *   adb logcat -s FundlyStartup
+ */
+public final class StartupTrace {
+
+    private static final String TAG = "FundlyStartup";
+
+    private final long processStart = Process.getStartElapsedRealtime();
+    private final List<String> lines = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+
+    /** Runs one stage, on the calling thread, and records how long it took. */
+    public void stage(String name, Runnable work) {
+        long start = SystemClock.elapsedRealtime();
+        Trace.beginSection(name);
+        try {
+            work.run();
+        } finally {
+            Trace.endSection();
+            record(name, start, SystemClock.elapsedRealtime());
+        }
+    }
+
+    private void record(String name, long start, long end) {
+        String line = String.format(Locale.US, "%-16s %5d ms  (+%d ms)  [%s]",
+                name, end - start, end - processStart, Thread.currentThread().getName());
+        synchronized (lines) {
+            lines.add(line);
+            names.add(name);
+        }
+        Log.i(TAG, line);
+    }
+
+    /** Names of the recorded stages, in completion order. */
+    public List<String> stageNames() {
+        synchronized (lines) {
+            return new ArrayList<>(names);
+        }
+    }
+
+    /** Logs every recorded stage in completion order. */
+    public void dump() {
+        synchronized (lines) {
+            Log.i(TAG, "Startup stages (" + lines.size() + "):");
+            for (String line : lines) Log.i(TAG, "  " + line);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.ensias.fundlytest;
+
+import android.app.Application;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Stage ordering and gating of {@link AppInitializer}, with the Realm and Firebase
+ * work replaced by steps that record where and when they ran. The plain
+ * Application keeps FundlyApplication from starting the real pipeline.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(application = Application.class)
+public class AppInitializerTest {
+
+    private final RecordingSteps steps = new RecordingSteps();
+
+    @After
+    public void tearDown() {
+        steps.release();
+    }
+
+    @Test
+    public void stagesRunInOrderOnTheirThreads() throws InterruptedException {
+        steps.release();
+        AppInitializer initializer = startWith(steps);
+
+        initializer.await(AppInitializer.Stage.DATABASE);
+        initializer.await(AppInitializer.Stage.FIREBASE);
+        idleMainUntil(initializer, AppInitializer.Stage.CATEGORY_CACHE);
+
+        List<String> mainOrder = steps.calls("main");
+        assertEquals(Arrays.asList("configureDatabase", "startCategoryCache"), mainOrder);
+        assertEquals(Arrays.asList("openDatabase"), steps.calls("fundly-realm"));
+        assertEquals(Arrays.asList("initFirebase"), steps.calls("fundly-io"));
+        assertTrue(steps.indexOf("openDatabase") < steps.indexOf("startCategoryCache"));
+
+        List<String> stages = initializer.getTrace().stageNames();
+        assertEquals("realm-config", stages.get(0));
+        assertTrue(stages.indexOf("realm-open") < stages.indexOf("category-cache"));
+        assertTrue(stages.contains("firebase"));
+        assertEquals(4, stages.size());
+    }
+
+    @Test
+    public void databaseStageGatesAwaitAndCategoryCache() throws InterruptedException {
+        AppInitializer initializer = startWith(steps);
+        assertTrue(steps.openStarted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch awaited = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            initializer.await(AppInitializer.Stage.DATABASE);
+            awaited.countDown();
+        });
+        waiter.start();
+
+        assertFalse(awaited.await(200, TimeUnit.MILLISECONDS));
+        assertFalse(initializer.isDone(AppInitializer.Stage.DATABASE));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertFalse(initializer.isDone(AppInitializer.Stage.CATEGORY_CACHE));
+        assertTrue(steps.calls("main").contains("configureDatabase"));
+        assertFalse(steps.calls("main").contains("startCategoryCache"));
+
+        steps.release();
+        assertTrue(awaited.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertTrue(initializer.isDone(AppInitializer.Stage.DATABASE));
+
+        idleMainUntil(initializer, AppInitializer.Stage.CATEGORY_CACHE);
+        assertTrue(steps.calls("main").contains("startCategoryCache"));
+    }
+
+    @Test
+    public void whenDoneRunsOnMainOnceTheStageIsDone() throws InterruptedException {
+        AppInitializer initializer = startWith(steps);
+
+        List<String> ran = new ArrayList<>();
+        initializer.whenDone(AppInitializer.Stage.DATABASE, () -> ran.add(threadName()));
+        shadowOf(Looper.getMainLooper()).idle();
+        assertTrue(ran.isEmpty());
+
+        steps.release();
+        initializer.await(AppInitializer.Stage.DATABASE);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(Arrays.asList("main"), ran);
+
+        // Already done: runs right away on the main thread
+        initializer.whenDone(AppInitializer.Stage.DATABASE, () -> ran.add("immediate"));
+        assertEquals(Arrays.asList("main", "immediate"), ran);
+    }
+
+    @Test
+    public void startIsIdempotent() throws InterruptedException {
+        steps.release();
+        AppInitializer initializer = startWith(steps);
+        initializer.start(RuntimeEnvironment.getApplication());
+
+        initializer.await(AppInitializer.Stage.DATABASE);
+        initializer.await(AppInitializer.Stage.FIREBASE);
+        idleMainUntil(initializer, AppInitializer.Stage.CATEGORY_CACHE);
+
+        assertEquals(1, steps.count("openDatabase"));
+        assertEquals(1, steps.count("initFirebase"));
+    }
+
+    private static AppInitializer startWith(AppInitializer.Steps steps) {
+        AppInitializer initializer = new AppInitializer(steps);
+        initializer.start(RuntimeEnvironment.getApplication());
+        return initializer;
+    }
+
+    /** "main" on the main looper thread, else the thread's own name. */
+    private static String threadName() {
+        return Looper.myLooper() == Looper.getMainLooper() ? "main" : Thread.currentThread().getName();
+    }
+
+    /** CATEGORY_CACHE is posted to main after DATABASE; drain the looper until it ran. */
+    private static void idleMainUntil(AppInitializer initializer, AppInitializer.Stage stage)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!initializer.isDone(stage)) {
+            assertTrue("timed out waiting for " + stage, System.currentTimeMillis() < deadline);
+            shadowOf(Looper.getMainLooper()).idle();
+            Thread.sleep(10);
+        }
+    }
+
+    /** Records each step with its thread; openDatabase blocks until released. */
+    private static final class RecordingSteps implements AppInitializer.Steps {
+        final CountDownLatch openStarted = new CountDownLatch(1);
+        private final CountDownLatch openReleased = new CountDownLatch(1);
+        private final List<String[]> calls = new ArrayList<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void configureDatabase(Application app) {
+            record("configureDatabase");
+        }
+
+        @Override
+        public void openDatabase() {
+            openStarted.countDown();
+            try {
+                openReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            record("openDatabase");
+        }
+
+        @Override
+        public void startCategoryCache() {
+            record("startCategoryCache");
+        }
+
+        @Override
+        public void initFirebase(Application app) {
+            record("initFirebase");
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) openReleased.countDown();
+        }
+
+        private synchronized void record(String step) {
+            calls.add(new String[]{step, threadName()});
+        }
+
+        synchronized List<String> calls(String thread) {
+            List<String> steps = new ArrayList<>();
+            for (String[] call : calls) if (call[1].equals(thread)) steps.add(call[0]);
+            return steps;
+        }
+
+        synchronized int indexOf(String step) {
+            for (int i = 0; i < calls.size(); i++) if (calls.get(i)[0].equals(step)) return i;
+            return -1;
+        }
+
+        synchronized int count(String step) {
+            int n = 0;
+            for (String[] call : calls) if (call[0].equals(step)) n++;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.ensias.fundlytest.database;
+
+import com.ensias.fundlytest.core.InMemoryStore;
+import com.ensias.fundlytest.core.TransactionInfo;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TransactionCsvImporterTest {
+
+    @Test
+    public void amountUsesLastSeparatorAsDecimal() {
+        assertEquals(Long.valueOf(123450), TransactionCsvImporter.parseAmount("1,234.50"));
+        assertEquals(Long.valueOf(123450), TransactionCsvImporter.parseAmount("1.234,50"));
+        assertEquals(Long.valueOf(-123450), TransactionCsvImporter.parseAmount("-1 234,50"));
+        assertEquals(Long.valueOf(123450), TransactionCsvImporter.parseAmount("1234.5"));
+        assertEquals(Long.valueOf(50), TransactionCsvImporter.parseAmount("0,5"));
+        assertEquals(Long.valueOf(123456700), TransactionCsvImporter.parseAmount("1,234,567"));
+        assertEquals(Long.valueOf(123456789), TransactionCsvImporter.parseAmount("1.234.567,89"));
+        assertEquals(Long.valueOf(4200), TransactionCsvImporter.parseAmount("+42"));
+    }
+
+    @Test
+    public void ambiguousOrOverPreciseAmountsAreRejected() {
+        assertNull(TransactionCsvImporter.parseAmount("1,234"));
+        assertNull(TransactionCsvImporter.parseAmount("1.234"));
+        assertNull(TransactionCsvImporter.parseAmount("12.345"));
+        assertNull(TransactionCsvImporter.parseAmount("1.2345"));
+        assertNull(TransactionCsvImporter.parseAmount("1,234.567"));
+        assertNull(TransactionCsvImporter.parseAmount("12,34.50"));
+        assertNull(TransactionCsvImporter.parseAmount("12."));
+        assertNull(TransactionCsvImporter.parseAmount("abc"));
+        assertNull(TransactionCsvImporter.parseAmount("-"));
+        assertNull(TransactionCsvImporter.parseAmount(""));
+    }
+
+    @Test
+    public void dateMustMatchWholeText() {
+        TransactionCsvImporter importer = new TransactionCsvImporter(null, "user");
+
+        Date withTime = importer.parseDate("2024-03-05 14:30:15");
+        assertNotNull(withTime);
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(withTime);
+        assertEquals(14, cal.get(Calendar.HOUR_OF_DAY));
+        assertEquals(30, cal.get(Calendar.MINUTE));
+
+        assertNotNull(importer.parseDate(" 2024-03-05 "));
+        assertNotNull(importer.parseDate("05/03/2024"));
+        assertNull(importer.parseDate("2024-03-05 14:30"));
+        assertNull(importer.parseDate("2024-03-05abc"));
+        assertNull(importer.parseDate("2024-02-30"));
+    }
+
+    @Test
+    public void unterminatedQuoteSkipsOneRowAndResyncs() throws IOException {
+        List<List<String>> rows = readAll("date,amount\n"
+                + "2024-01-01,\"10\n"
+                + "2024-01-02,20\n"
+                + "2024-01-03,30\n");
+
+        assertEquals(Arrays.asList("date", "amount"), rows.get(0));
+        assertNull(rows.get(1));
+        assertEquals(Arrays.asList("2024-01-02", "20"), rows.get(2));
+        assertEquals(Arrays.asList("2024-01-03", "30"), rows.get(3));
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    public void quotedLineBreaksAndDoubledQuotesStillRead() throws IOException {
+        List<List<String>> rows = readAll("a,\"line 1\nline \"\"2\"\"\",c\r\nd,e,f");
+
+        assertEquals(Arrays.asList("a", "line 1\nline \"2\"", "c"), rows.get(0));
+        assertEquals(Arrays.asList("d", "e", "f"), rows.get(1));
+        assertEquals(2, rows.size());
+    }
+
+    @Test
+    public void overlongFieldSkipsItsLine() throws IOException {
+        StringBuilder longField = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) longField.append('x');
+
+        List<List<String>> rows = readAll("1," + longField + ",3\n4,5\n\"" + longField + "\"\n6,7\n");
+
+        assertNull(rows.get(0));
+        assertEquals(Arrays.asList("4", "5"), rows.get(1));
+        assertNull(rows.get(2));
+        assertEquals(Arrays.asList("6", "7"), rows.get(3));
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    public void largeInputIsCommittedInChunksWithOneProgressCallEach() throws IOException {
+        int rows = 100_000;
+        int chunkSize = 1_000;
+        GeneratedCsv csv = new GeneratedCsv(rows);
+        ChunkRecordingStore store = new ChunkRecordingStore();
+        List<long[]> progress = new ArrayList<>();
+
+        TransactionCsvImporter.Result result = new TransactionCsvImporter(store, store, "user", chunkSize)
+                .importFrom(csv, (imported, bytes) -> progress.add(new long[]{imported, bytes}));
+
+        assertEquals(rows, result.getImported());
+        assertEquals(0, result.getSkipped());
+        assertEquals(GeneratedCsv.CATEGORIES.length, result.getCreatedCategories());
+
+        int chunks = (rows + chunkSize - 1) / chunkSize;
+        assertEquals(chunks, store.chunkSizes.size());
+        assertEquals(chunks, progress.size());
+        for (int i = 0; i < chunks; i++) {
+            assertEquals(Math.min(chunkSize, rows - i * chunkSize), (int) store.chunkSizes.get(i));
+            assertEquals(Math.min((long) (i + 1) * chunkSize, rows), progress.get(i)[0]);
+            if (i > 0) assertTrue(progress.get(i)[1] > progress.get(i - 1)[1]);
+        }
+        assertEquals(csv.bytesServed, progress.get(chunks - 1)[1]);
+
+        // One buffer, reused and cleared: the importer holds at most a chunk of rows at a time
+        assertEquals(0, store.size());
+        assertTrue(store.lastChunk.isEmpty());
+    }
+
+    /** Every record in order, null for a malformed one. */
+    private static List<List<String>> readAll(String csv) throws IOException {
+        TransactionCsvImporter.CsvReader reader = new TransactionCsvImporter.CsvReader(new StringReader(csv));
+        List<List<String>> rows = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        while (reader.next(record)) {
+            if (reader.isMalformed()) {
+                assertTrue(record.isEmpty());
+                rows.add(null);
+            } else {
+                rows.add(new ArrayList<>(record));
+            }
+        }
+        assertFalse(reader.next(record));
+        return rows;
+    }
+
+    /**
+     * Categories from InMemoryStore; transaction chunks are counted and dropped, and
+     * the collection passed in is kept to check the importer reuses a single buffer.
+     */
+    private static final class ChunkRecordingStore extends InMemoryStore {
+        final List<Integer> chunkSizes = new ArrayList<>();
+        Collection<TransactionInfo> lastChunk;
+
+        @Override
+        public int addTransactions(Collection<TransactionInfo> transactions, int chunkSize) {
+            assertTrue(transactions.size() <= chunkSize);
+            if (lastChunk != null) assertSame(lastChunk, transactions);
+            lastChunk = transactions;
+            chunkSizes.add(transactions.size());
+            return transactions.size();
+        }
+    }
+
+    /** A CSV of {@code rows} rows produced one line at a time, never held whole. */
+    private static final class GeneratedCsv extends InputStream {
+        static final String[] CATEGORIES = {"Groceries", "Rent", "Salary", "Travel", "Fees"};
+
+        private final int rows;
+        private int nextRow = -1;
+        private byte[] line = new byte[0];
+        private int position;
+        long bytesServed;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (!fill()) return -1;
+            bytesServed++;
+            return line[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!fill()) return -1;
+            int n = Math.min(len, line.length - position);
+            System.arraycopy(line, position, b, off, n);
+            position += n;
+            bytesServed += n;
+            return n;
+        }
+
+        private boolean fill() {
+            while (position == line.length) {
+                if (nextRow >= rows) return false;
+                String text;
+                if (nextRow < 0) {
+                    text = "date,amount,category,note\n";
+                } else {
+                    int i = nextRow;
+                    String category = CATEGORIES[i % CATEGORIES.length];
+                    // Salary is income, the rest expenses: one created category per name
+                    text = String.format(Locale.ROOT, "2024-%02d-%02d,%s%d.%02d,%s,row %d\n",
+                            1 + i % 12, 1 + i % 28, category.equals("Salary") ? "" : "-",
+                            1 + i % 500, i % 100, category, i);
+                }
+                line = text.getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                nextRow++;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ensias.fundlytest.benchmark;
+
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.EffectiveCategories;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Effective category list resolution, what CategoryCache recomputes after a category change. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CategoryBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int categories;
+
+    private List<CategoryInfo> ordered;
+
+    @Setup
+    public void setUp() {
+        ordered = SyntheticData.categories(categories);
+    }
+
+    @Benchmark
+    public List<CategoryInfo> resolveExpense() {
+        return EffectiveCategories.resolve(ordered, SyntheticData.USER_ID, "expense");
+    }
+
+    @Benchmark
+    public List<CategoryInfo> resolveIncome() {
+        return EffectiveCategories.resolve(ordered, SyntheticData.USER_ID, "income");
+    }
+}
@@ -0,0 +1,129 @@
+package com.ensias.fundlytest.benchmark;
+
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.ColumnarSnapshot;
+import com.ensias.fundlytest.core.DateKeys;
+import com.ensias.fundlytest.core.EffectiveCategories;
+import com.ensias.fundlytest.core.InMemoryStore;
+import com.ensias.fundlytest.core.PeriodSummary;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report queries on the paths the app runs, over the same seeded rows.
+ *
+ * The snapshot* benchmarks go through {@link ColumnarSnapshot}, which answers the
+ * Reports and Home screens once warm: month bounds fall on local midnights and use
+ * its day index, the rolling week does not and scans. reportsTab adds the
+ * {@link EffectiveCategories} lookup the breakdown list does per row. The store*
+ * benchmarks are the {@link InMemoryStore} row scan, kept as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReportBenchmark {
+
+    private static final int TABS = 6;
+
+    @Param({"10000", "100000", "1000000"})
+    public int transactions;
+
+    @Param({"10", "100"})
+    public int categories;
+
+    private InMemoryStore store;
+    private ColumnarSnapshot snapshot;
+    private List<CategoryInfo> ordered;
+
+    private Date weekStart;
+    private Date yearStart;
+    private Date end;
+    // Month tabs oldest first, as ReportsActivity.periodBounds builds them
+    private long[] monthBounds;
+
+    @Setup
+    public void setUp() {
+        store = SyntheticData.store(transactions, categories);
+        snapshot = SyntheticData.snapshot(transactions, categories);
+        ordered = SyntheticData.categories(categories);
+
+        end = new Date(SyntheticData.NOW);
+        weekStart = new Date(SyntheticData.NOW - TimeUnit.DAYS.toMillis(7));
+        yearStart = new Date(SyntheticData.NOW - SyntheticData.SPAN_MILLIS);
+
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(DateKeys.floorToMonth(end));
+        cal.add(Calendar.MONTH, 1 - TABS);
+        monthBounds = new long[TABS + 1];
+        for (int i = 0; i <= TABS; i++) {
+            monthBounds[i] = cal.getTimeInMillis();
+            cal.add(Calendar.MONTH, 1);
+        }
+    }
+
+    @Benchmark
+    public long snapshotWeekExpenseTotal() {
+        return snapshot.getTotal(false, weekStart.getTime(), end.getTime());
+    }
+
+    @Benchmark
+    public Map<String, Long> snapshotMonthExpenseBreakdown() {
+        return snapshot.getBreakdown(false, monthBounds[TABS - 1], monthBounds[TABS]);
+    }
+
+    @Benchmark
+    public PeriodSummary snapshotMonthSummary() {
+        return snapshot.getPeriodSummary(monthBounds[TABS - 1], monthBounds[TABS]);
+    }
+
+    @Benchmark
+    public List<PeriodSummary> snapshotSixMonthTabs() {
+        return snapshot.getPeriodSummaries(monthBounds);
+    }
+
+    /** One month tab as the Reports screen shows it: summary, then a category per breakdown row. */
+    @Benchmark
+    public List<CategoryInfo> reportsTab() {
+        PeriodSummary summary = snapshot.getPeriodSummary(monthBounds[TABS - 1], monthBounds[TABS]);
+        List<CategoryInfo> effective = EffectiveCategories.resolve(ordered, SyntheticData.USER_ID, "expense");
+        Map<String, CategoryInfo> byId = new HashMap<>(effective.size() * 2);
+        for (CategoryInfo c : effective) byId.put(c.getId(), c);
+
+        List<Map.Entry<String, Long>> sorted = new ArrayList<>(summary.getBreakdown("expense").entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        List<CategoryInfo> rows = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, Long> e : sorted) rows.add(byId.get(e.getKey()));
+        return rows;
+    }
+
+    @Benchmark
+    public long storeWeekExpenseTotal() {
+        return store.getTotalExpenses(SyntheticData.USER_ID, weekStart, end);
+    }
+
+    @Benchmark
+    public Map<String, Long> storeMonthExpenseBreakdown() {
+        return store.getCategoryBreakdown(SyntheticData.USER_ID,
+                new Date(monthBounds[TABS - 1]), new Date(monthBounds[TABS]), "expense");
+    }
+
+    @Benchmark
+    public PeriodSummary storeYearSummary() {
+        return store.getPeriodSummary(SyntheticData.USER_ID, yearStart, end);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ensias.fundlytest.benchmark;
+
+import com.ensias.fundlytest.core.ColumnarSnapshot;
+import com.ensias.fundlytest.core.DateKeys;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upkeep and range queries of {@link ColumnarSnapshot}: the load TransactionSnapshots
+ * does on warm-up, the put/remove a write patches in, and the same month asked with
+ * midnight bounds (day index) and with bounds an hour off (row loop).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotBenchmark {
+
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"10000", "100000", "1000000"})
+    public int transactions;
+
+    @Param({"10", "100"})
+    public int categories;
+
+    private SyntheticData.SnapshotRows rows;
+    private ColumnarSnapshot snapshot;
+    private long monthStart;
+    private long monthEnd;
+    private long middleDate;
+    private String patchCategory;
+
+    @Setup
+    public void setUp() {
+        rows = SyntheticData.snapshotRows(transactions, categories);
+        snapshot = rows.load();
+
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(DateKeys.floorToMonth(new Date(SyntheticData.NOW)));
+        cal.add(Calendar.MONTH, -1);
+        monthStart = cal.getTimeInMillis();
+        cal.add(Calendar.MONTH, 1);
+        monthEnd = cal.getTimeInMillis();
+
+        middleDate = rows.dates[transactions / 2];
+        patchCategory = rows.categoryIds[0];
+    }
+
+    @Benchmark
+    public ColumnarSnapshot load() {
+        return rows.load();
+    }
+
+    /** An edit dated mid-history: shifts half the columns each way. */
+    @Benchmark
+    public boolean patchMiddle() {
+        snapshot.put("bench-patch", middleDate, 1_000, patchCategory, false);
+        return snapshot.remove("bench-patch");
+    }
+
+    /** A new transaction dated now, the common case: appends at the tail. */
+    @Benchmark
+    public boolean patchNewest() {
+        snapshot.put("bench-patch", SyntheticData.NOW, 1_000, patchCategory, false);
+        return snapshot.remove("bench-patch");
+    }
+
+    @Benchmark
+    public long alignedMonthTotal() {
+        return snapshot.getTotal(false, monthStart, monthEnd);
+    }
+
+    @Benchmark
+    public long unalignedMonthTotal() {
+        return snapshot.getTotal(false, monthStart + HOUR_MILLIS, monthEnd + HOUR_MILLIS);
+    }
+
+    @Benchmark
+    public Map<String, Long> alignedMonthBreakdown() {
+        return snapshot.getBreakdown(false, monthStart, monthEnd);
+    }
+
+    @Benchmark
+    public Map<String, Long> unalignedMonthBreakdown() {
+        return snapshot.getBreakdown(false, monthStart + HOUR_MILLIS, monthEnd + HOUR_MILLIS);
+    }
+}
@@ -0,0 +1,148 @@
+package com.ensias.fundlytest.benchmark;
+
+import com.ensias.fundlytest.core.CategoryInfo;
+import com.ensias.fundlytest.core.ColumnarSnapshot;
+import com.ensias.fundlytest.core.InMemoryStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic synthetic data shaped like a real account: a fixed set of default
+ * categories, user categories of which some shadow a default by name, and
+ * transactions spread over the last year, roughly 80% expenses.
+ */
+final class SyntheticData {
+
+    static final String USER_ID = "bench-user";
+    static final long SEED = 42L;
+    static final long NOW = 1_760_000_000_000L; // fixed so runs are comparable
+    static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private static final int DEFAULTS_PER_TYPE = 9;
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Defaults first, then the user's categories, in display order. One in four user
+     * categories reuses a default name so the effective list has overrides to resolve.
+     */
+    static List<CategoryInfo> categories(int userCategories) {
+        List<CategoryInfo> list = new ArrayList<>();
+        int order = 0;
+        for (int i = 0; i < DEFAULTS_PER_TYPE; i++) {
+            list.add(new CategoryInfo("def-exp-" + i, CategoryInfo.DEFAULT_USER_ID, "Expense " + i,
+                    "expense", "ic_category", 0xFF000000 | i, false, order++));
+            list.add(new CategoryInfo("def-inc-" + i, CategoryInfo.DEFAULT_USER_ID, "Income " + i,
+                    "income", "ic_category", 0xFF000000 | i, false, order++));
+        }
+        for (int i = 0; i < userCategories; i++) {
+            String type = i % 5 == 0 ? "income" : "expense";
+            String name = i % 4 == 0
+                    ? (type.equals("income") ? "income " : "expense ") + (i % DEFAULTS_PER_TYPE)
+                    : "Custom " + i;
+            list.add(new CategoryInfo("user-cat-" + i, USER_ID, name, type, "ic_category",
+                    0xFF00FF00, true, 999));
+        }
+        return list;
+    }
+
+    /** A store holding the categories above and {@code transactions} rows for {@link #USER_ID}. */
+    static InMemoryStore store(int transactions, int userCategories) {
+        InMemoryStore store = new InMemoryStore();
+        List<CategoryInfo> categories = categories(userCategories);
+        for (CategoryInfo c : categories) store.putCategory(c);
+
+        generate(transactions, categories, (i, category, amountMinor, date) ->
+                store.addTransaction("tx-" + i, USER_ID, amountMinor, category.getId(),
+                        category.getType(), null, new Date(date), category.getColor(),
+                        category.getIconName()));
+        return store;
+    }
+
+    /**
+     * The same rows as {@link #store} in the snapshot the app keeps per user, appended
+     * in date order the way DataManager.buildSnapshot loads them.
+     */
+    static ColumnarSnapshot snapshot(int transactions, int userCategories) {
+        return snapshotRows(transactions, userCategories).load();
+    }
+
+    /** The rows of {@link #store}, sorted by date, ready to load into a snapshot. */
+    static SnapshotRows snapshotRows(int transactions, int userCategories) {
+        long[] dates = new long[transactions];
+        long[] amounts = new long[transactions];
+        CategoryInfo[] rowCategories = new CategoryInfo[transactions];
+        generate(transactions, categories(userCategories), (i, category, amountMinor, date) -> {
+            dates[i] = date;
+            amounts[i] = amountMinor;
+            rowCategories[i] = category;
+        });
+
+        Integer[] order = new Integer[transactions];
+        for (int i = 0; i < transactions; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(dates[a], dates[b]));
+
+        SnapshotRows rows = new SnapshotRows(transactions);
+        for (int at = 0; at < transactions; at++) {
+            int i = order[at];
+            rows.ids[at] = "tx-" + i;
+            rows.dates[at] = dates[i];
+            rows.amounts[at] = amounts[i];
+            rows.categoryIds[at] = rowCategories[i].getId();
+            rows.income[at] = "income".equals(rowCategories[i].getType());
+        }
+        return rows;
+    }
+
+    /** Feeds {@code transactions} seeded rows to {@code sink}; every caller sees the same rows. */
+    private static void generate(int transactions, List<CategoryInfo> categories, RowSink sink) {
+        List<CategoryInfo> expense = new ArrayList<>();
+        List<CategoryInfo> income = new ArrayList<>();
+        for (CategoryInfo c : categories) ("income".equals(c.getType()) ? income : expense).add(c);
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < transactions; i++) {
+            boolean isIncome = random.nextInt(5) == 0;
+            List<CategoryInfo> pool = isIncome ? income : expense;
+            CategoryInfo category = pool.get(random.nextInt(pool.size()));
+            long amountMinor = 100 + random.nextInt(isIncome ? 500_000 : 50_000);
+            long date = NOW - (long) (random.nextDouble() * SPAN_MILLIS);
+            sink.accept(i, category, amountMinor, date);
+        }
+    }
+
+    private interface RowSink {
+        void accept(int index, CategoryInfo category, long amountMinor, long date);
+    }
+
+    /** Snapshot columns in date order. */
+    static final class SnapshotRows {
+        final String[] ids;
+        final long[] dates;
+        final long[] amounts;
+        final String[] categoryIds;
+        final boolean[] income;
+
+        SnapshotRows(int size) {
+            ids = new String[size];
+            dates = new long[size];
+            amounts = new long[size];
+            categoryIds = new String[size];
+            income = new boolean[size];
+        }
+
+        ColumnarSnapshot load() {
+            ColumnarSnapshot snapshot = new ColumnarSnapshot(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                snapshot.put(ids[i], dates[i], amounts[i], categoryIds[i], income[i]);
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ensias.fundlytest.core;
+
+/**
+ * Immutable copy of a category. Safe to share across threads and to keep
+ * after the store it was read from is closed.
+ */
+public final class CategoryInfo {
+
+    /** Owner id of the shared default categories. */
+    public static final String DEFAULT_USER_ID = "__DEFAULT__";
+
+    private final String id;
+    private final String userId;
+    private final String name;
+    private final String type;
+    private final String iconName;
+    private final int color;
+    private final boolean custom;
+    private final int order;
+
+    public CategoryInfo(String id, String userId, String name, String type,
+                        String iconName, int color, boolean custom, int order) {
+        this.id = id;
+        this.userId = userId;
+        this.name = name;
+        this.type = type;
+        this.iconName = iconName;
+        this.color = color;
+        this.custom = custom;
+        this.order = order;
+    }
+
+    public String getId() { return id; }
+    public String getUserId() { return userId; }
+    public String getName() { return name; }
+    public String getType() { return type; }
+    public String getIconName() { return iconName; }
+    public int getColor() { return color; }
+    public boolean isCustom() { return custom; }
+    public int getOrder() { return order; }
+
+    /** Shared default: no owner or the "__DEFAULT__" owner. */
+    public boolean isDefault() {
+        return userId == null || userId.trim().isEmpty() || DEFAULT_USER_ID.equals(userId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ensias.fundlytest.core;
+
+import java.util.List;
+
+/** Category writes and lookups, independent of the storage engine. */
+public interface CategoryStore {
+
+    void addCategory(String id, String userId, String name, String type,
+                     String iconName, int color, boolean isCustom);
+
+    void updateCategory(String categoryId, String name, String iconName, int color);
+
+    void deleteCategory(String categoryId);
+
+    /** Null when the id is unknown. */
+    CategoryInfo getCategoryInfo(String categoryId);
+
+    /** Defaults plus the user's own categories, in display order. */
+    List<CategoryInfo> getCategoryInfos(String userId);
+}
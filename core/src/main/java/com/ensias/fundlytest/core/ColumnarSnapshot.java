@@ -0,0 +1,250 @@
+package com.ensias.fundlytest.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * One user's transactions as parallel primitive arrays sorted by date. A range
+ * query binary-searches its two bounds and sums the rows in between in a plain
+ * loop, so reports cost microseconds and allocate only the result.
+ *
+ * Patched in place: an insert or delete shifts the tail of the arrays, which is
+ * cheap next to a Realm write. Amounts are minor units at {@link Money#DEFAULT_SCALE};
+ * ranges are [from, to) in epoch millis. Not thread-safe.
+ *
+ * A {@link DayTotalsIndex} is kept alongside, bucketed by day in the time zone the
+ * snapshot was created in: ranges whose bounds both fall on a midnight of that zone
+ * (every Reports period) are answered from it in O(log days) instead of the loop.
+ */
+public final class ColumnarSnapshot {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private long[] dateMillis;
+    private long[] amountMinor;
+    private int[] categoryIdx;
+    private boolean[] income;
+    private String[] ids;
+    private int size;
+
+    // Deletes find the row by date first, then by id among rows of that date
+    private final Map<String, Long> dateById = new HashMap<>();
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private final List<String> categoryIds = new ArrayList<>();
+
+    private final TimeZone zone = TimeZone.getDefault();
+    private final DayTotalsIndex days = new DayTotalsIndex(true);
+
+    public ColumnarSnapshot() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarSnapshot(int capacity) {
+        int initial = Math.max(capacity, 16);
+        dateMillis = new long[initial];
+        amountMinor = new long[initial];
+        categoryIdx = new int[initial];
+        income = new boolean[initial];
+        ids = new String[initial];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Adds a row, replacing any row with the same id. */
+    public void put(String id, long date, long amount, String categoryId, boolean isIncome) {
+        remove(id);
+        ensureCapacity(size + 1);
+
+        int at = upperBound(date);
+        int tail = size - at;
+        if (tail > 0) {
+            System.arraycopy(dateMillis, at, dateMillis, at + 1, tail);
+            System.arraycopy(amountMinor, at, amountMinor, at + 1, tail);
+            System.arraycopy(categoryIdx, at, categoryIdx, at + 1, tail);
+            System.arraycopy(income, at, income, at + 1, tail);
+            System.arraycopy(ids, at, ids, at + 1, tail);
+        }
+        dateMillis[at] = date;
+        amountMinor[at] = amount;
+        categoryIdx[at] = categoryCode(categoryId);
+        income[at] = isIncome;
+        ids[at] = id;
+        size++;
+        dateById.put(id, date);
+        days.add(day(date), isIncome, categoryId, amount, 1);
+    }
+
+    /** @return false when the id is not in the snapshot */
+    public boolean remove(String id) {
+        Long date = dateById.remove(id);
+        if (date == null) return false;
+
+        for (int i = lowerBound(date); i < size && dateMillis[i] == date; i++) {
+            if (!id.equals(ids[i])) continue;
+            days.add(day(date), income[i], categoryIds.get(categoryIdx[i]), -amountMinor[i], -1);
+            int tail = size - i - 1;
+            if (tail > 0) {
+                System.arraycopy(dateMillis, i + 1, dateMillis, i, tail);
+                System.arraycopy(amountMinor, i + 1, amountMinor, i, tail);
+                System.arraycopy(categoryIdx, i + 1, categoryIdx, i, tail);
+                System.arraycopy(income, i + 1, income, i, tail);
+                System.arraycopy(ids, i + 1, ids, i, tail);
+            }
+            ids[--size] = null;
+            return true;
+        }
+        return false;
+    }
+
+    public long getTotal(boolean isIncome, long from, long to) {
+        if (isDayStart(from) && isDayStart(to)) return days.getTotal(isIncome, day(from), day(to));
+
+        int end = lowerBound(to);
+        long sum = 0;
+        for (int i = lowerBound(from); i < end; i++) {
+            if (income[i] == isIncome) sum += amountMinor[i];
+        }
+        return sum;
+    }
+
+    /** Sums per category id for one type. */
+    public Map<String, Long> getBreakdown(boolean isIncome, long from, long to) {
+        if (isDayStart(from) && isDayStart(to)) return days.getBreakdown(isIncome, day(from), day(to));
+
+        long[] sums = new long[categoryIds.size()];
+        boolean[] seen = new boolean[sums.length];
+        int end = lowerBound(to);
+        for (int i = lowerBound(from); i < end; i++) {
+            if (income[i] != isIncome) continue;
+            sums[categoryIdx[i]] += amountMinor[i];
+            seen[categoryIdx[i]] = true;
+        }
+        return toBreakdown(sums, seen);
+    }
+
+    public PeriodSummary getPeriodSummary(long from, long to) {
+        return getPeriodSummaries(new long[]{from, to}).get(0);
+    }
+
+    /**
+     * Summaries of consecutive periods: period i is [bounds[i], bounds[i + 1]), bounds
+     * ascending. Answered from the day index when every bound is a midnight, otherwise
+     * in one pass over the combined span.
+     */
+    public List<PeriodSummary> getPeriodSummaries(long[] bounds) {
+        int periods = bounds.length - 1;
+        List<PeriodSummary> summaries = new ArrayList<>(periods);
+
+        boolean aligned = true;
+        for (long bound : bounds) aligned &= isDayStart(bound);
+        if (aligned) {
+            for (int p = 0; p < periods; p++) {
+                int fromDay = day(bounds[p]);
+                int toDay = day(bounds[p + 1]);
+                summaries.add(new PeriodSummary(days.getTotal(true, fromDay, toDay),
+                        days.getTotal(false, fromDay, toDay),
+                        days.getCount(true, fromDay, toDay) + days.getCount(false, fromDay, toDay),
+                        days.getBreakdown(true, fromDay, toDay), days.getBreakdown(false, fromDay, toDay)));
+            }
+            return summaries;
+        }
+
+        int categoryCount = categoryIds.size();
+        long[][] incomeSums = new long[periods][categoryCount];
+        long[][] expenseSums = new long[periods][categoryCount];
+        boolean[][] seenIncome = new boolean[periods][categoryCount];
+        boolean[][] seenExpense = new boolean[periods][categoryCount];
+        long[] totalIncome = new long[periods];
+        long[] totalExpenses = new long[periods];
+        long[] counts = new long[periods];
+
+        int p = 0;
+        int end = lowerBound(bounds[periods]);
+        for (int i = lowerBound(bounds[0]); i < end; i++) {
+            while (dateMillis[i] >= bounds[p + 1]) p++;
+            int category = categoryIdx[i];
+            if (income[i]) {
+                totalIncome[p] += amountMinor[i];
+                incomeSums[p][category] += amountMinor[i];
+                seenIncome[p][category] = true;
+            } else {
+                totalExpenses[p] += amountMinor[i];
+                expenseSums[p][category] += amountMinor[i];
+                seenExpense[p][category] = true;
+            }
+            counts[p]++;
+        }
+
+        for (p = 0; p < periods; p++) {
+            summaries.add(new PeriodSummary(totalIncome[p], totalExpenses[p], counts[p],
+                    toBreakdown(incomeSums[p], seenIncome[p]), toBreakdown(expenseSums[p], seenExpense[p])));
+        }
+        return summaries;
+    }
+
+    private Map<String, Long> toBreakdown(long[] sums, boolean[] seen) {
+        Map<String, Long> breakdown = new HashMap<>();
+        for (int c = 0; c < sums.length; c++) {
+            if (seen[c]) breakdown.put(categoryIds.get(c), sums[c]);
+        }
+        return breakdown;
+    }
+
+    /** Epoch day of {@code millis} in the snapshot's zone, as {@link DateKeys#epochDay} computes it. */
+    private int day(long millis) {
+        return (int) Math.floorDiv(millis + zone.getOffset(millis), DAY_MILLIS);
+    }
+
+    private boolean isDayStart(long millis) {
+        return Math.floorMod(millis + zone.getOffset(millis), DAY_MILLIS) == 0;
+    }
+
+    /** First row dated at or after {@code date}. */
+    private int lowerBound(long date) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dateMillis[mid] < date) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /** First row dated strictly after {@code date}. */
+    private int upperBound(long date) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (dateMillis[mid] <= date) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int categoryCode(String categoryId) {
+        Integer code = categoryCodes.get(categoryId);
+        if (code != null) return code;
+        categoryCodes.put(categoryId, categoryIds.size());
+        categoryIds.add(categoryId);
+        return categoryIds.size() - 1;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 2);
+        dateMillis = Arrays.copyOf(dateMillis, capacity);
+        amountMinor = Arrays.copyOf(amountMinor, capacity);
+        categoryIdx = Arrays.copyOf(categoryIdx, capacity);
+        income = Arrays.copyOf(income, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+    }
+}
@@ -0,0 +1,73 @@
+package com.ensias.fundlytest.core;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Date bucket helpers shared by the rollup table and the report queries.
+ * A month key is year * 12 + month (0-based) and an epoch day is the number of
+ * days since 1970-01-01, both in the device time zone.
+ */
+public final class DateKeys {
+
+    private DateKeys() {
+    }
+
+    public static int monthKey(Date date) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        return cal.get(Calendar.YEAR) * 12 + cal.get(Calendar.MONTH);
+    }
+
+    public static int epochDay(Date date) {
+        long millis = date.getTime();
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return (int) Math.floorDiv(local, 86_400_000L);
+    }
+
+    /** True when date falls exactly on a local midnight. */
+    public static boolean isDayStart(Date date) {
+        long millis = date.getTime();
+        long local = millis + TimeZone.getDefault().getOffset(millis);
+        return Math.floorMod(local, 86_400_000L) == 0;
+    }
+
+    /** Month keys touched by [startDate, endDate), in ascending order. */
+    public static Integer[] monthKeysBetween(Date startDate, Date endDate) {
+        return monthKeysBetween(startDate, endDate, 0);
+    }
+
+    /**
+     * Month keys touched by [startDate, endDate) plus {@code slack} months on each
+     * side, for keys that may have been computed in another time zone.
+     */
+    public static Integer[] monthKeysBetween(Date startDate, Date endDate, int slack) {
+        if (!startDate.before(endDate)) return new Integer[0];
+
+        int first = monthKey(startDate) - slack;
+        int last = monthKey(new Date(endDate.getTime() - 1)) + slack;
+        Integer[] keys = new Integer[last - first + 1];
+        for (int i = 0; i < keys.length; i++) keys[i] = first + i;
+        return keys;
+    }
+
+    public static Date monthStart(int monthKey) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(monthKey / 12, monthKey % 12, 1, 0, 0, 0);
+        return cal.getTime();
+    }
+
+    /** First month boundary that is >= date. */
+    public static Date ceilToMonth(Date date) {
+        int key = monthKey(date);
+        Date start = monthStart(key);
+        return start.equals(date) ? start : monthStart(key + 1);
+    }
+
+    /** Last month boundary that is <= date. */
+    public static Date floorToMonth(Date date) {
+        return monthStart(monthKey(date));
+    }
+}
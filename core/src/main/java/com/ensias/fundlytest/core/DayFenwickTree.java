@@ -0,0 +1,68 @@
+package com.ensias.fundlytest.core;
+
+/**
+ * Fenwick (binary indexed) tree of long values per epoch day. Point adds and
+ * range sums are O(log days). The covered day range starts at the first day
+ * added and grows in either direction; growing re-lays the tree in O(days).
+ */
+final class DayFenwickTree {
+
+    private static final int INITIAL_DAYS = 64;
+
+    private int firstDay;
+    private long[] tree; // 1-based, tree[0] unused; null until the first add
+
+    void add(int day, long delta) {
+        if (tree == null) {
+            firstDay = day - INITIAL_DAYS / 2;
+            tree = new long[INITIAL_DAYS + 1];
+        } else if (day < firstDay || day >= firstDay + capacity()) {
+            grow(day);
+        }
+        for (int i = day - firstDay + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    /** Sum of [fromDay, toDay). */
+    long sum(int fromDay, int toDay) {
+        return fromDay >= toDay ? 0 : prefix(toDay) - prefix(fromDay);
+    }
+
+    /** Sum of every day before {@code day}. */
+    private long prefix(int day) {
+        if (tree == null) return 0;
+        int n = Math.min(day - firstDay, capacity());
+        long sum = 0;
+        for (int i = n; i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    private int capacity() {
+        return tree.length - 1;
+    }
+
+    private void grow(int day) {
+        int oldCapacity = capacity();
+
+        // Back to plain per-day values: undo the linear-time build
+        for (int i = oldCapacity; i > 0; i--) {
+            int parent = i + (i & -i);
+            if (parent <= oldCapacity) tree[parent] -= tree[i];
+        }
+
+        int lastDay = Math.max(firstDay + oldCapacity - 1, day);
+        int newFirst = Math.min(firstDay, day);
+        int newCapacity = Math.max(oldCapacity * 2, lastDay - newFirst + 1);
+        // Spare room goes on the side that just grew
+        if (day < firstDay) newFirst = lastDay - newCapacity + 1;
+
+        long[] grown = new long[newCapacity + 1];
+        System.arraycopy(tree, 1, grown, firstDay - newFirst + 1, oldCapacity);
+        for (int i = 1; i <= newCapacity; i++) {
+            int parent = i + (i & -i);
+            if (parent <= newCapacity) grown[parent] += grown[i];
+        }
+
+        tree = grown;
+        firstDay = newFirst;
+    }
+}
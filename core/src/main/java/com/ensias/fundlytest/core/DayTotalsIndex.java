@@ -0,0 +1,77 @@
+package com.ensias.fundlytest.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running amount and count per epoch day for each type, and optionally per category,
+ * kept in Fenwick trees: a total over any whole-day range is O(log days) whatever
+ * the number of transactions. Updated with signed deltas on insert, update and delete.
+ * Not thread-safe.
+ */
+public final class DayTotalsIndex {
+
+    private final boolean perCategory;
+    private final Series expense = new Series();
+    private final Series income = new Series();
+    private final Map<String, Series> expenseByCategory = new HashMap<>();
+    private final Map<String, Series> incomeByCategory = new HashMap<>();
+
+    public DayTotalsIndex(boolean perCategory) {
+        this.perCategory = perCategory;
+    }
+
+    public boolean tracksCategories() {
+        return perCategory;
+    }
+
+    /** Pass a negative amount and count of -1 to take a row out. */
+    public void add(int day, boolean isIncome, String categoryId, long amountMinor, int countDelta) {
+        (isIncome ? income : expense).add(day, amountMinor, countDelta);
+        if (!perCategory) return;
+
+        Map<String, Series> byCategory = isIncome ? incomeByCategory : expenseByCategory;
+        Series series = byCategory.get(categoryId);
+        if (series == null) {
+            series = new Series();
+            byCategory.put(categoryId, series);
+        }
+        series.add(day, amountMinor, countDelta);
+    }
+
+    /** Amount of [fromDay, toDay). */
+    public long getTotal(boolean isIncome, int fromDay, int toDay) {
+        return (isIncome ? income : expense).amount.sum(fromDay, toDay);
+    }
+
+    public long getCount(boolean isIncome, int fromDay, int toDay) {
+        return (isIncome ? income : expense).count.sum(fromDay, toDay);
+    }
+
+    /**
+     * Amount per category id of [fromDay, toDay), for categories with at least one
+     * row in the range. O(categories * log days); only with per-category tracking.
+     */
+    public Map<String, Long> getBreakdown(boolean isIncome, int fromDay, int toDay) {
+        if (!perCategory) throw new IllegalStateException("Index was built without per-category trees");
+
+        Map<String, Long> breakdown = new HashMap<>();
+        for (Map.Entry<String, Series> e : (isIncome ? incomeByCategory : expenseByCategory).entrySet()) {
+            Series series = e.getValue();
+            if (series.count.sum(fromDay, toDay) > 0) {
+                breakdown.put(e.getKey(), series.amount.sum(fromDay, toDay));
+            }
+        }
+        return breakdown;
+    }
+
+    private static final class Series {
+        final DayFenwickTree amount = new DayFenwickTree();
+        final DayFenwickTree count = new DayFenwickTree();
+
+        void add(int day, long amountMinor, int countDelta) {
+            amount.add(day, amountMinor);
+            count.add(day, countDelta);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ensias.fundlytest.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/** Resolves the categories a user actually sees: their own merged over same-named defaults. */
+public final class EffectiveCategories {
+
+    private EffectiveCategories() {
+    }
+
+    /**
+     * Defaults plus the user's categories of one type, keeping the input order; a user
+     * category replaces a default of the same name (case-insensitive). Unmodifiable.
+     */
+    public static List<CategoryInfo> resolve(List<CategoryInfo> ordered, String userId, String type) {
+        Map<String, CategoryInfo> unique = new LinkedHashMap<>();
+        for (CategoryInfo c : ordered) {
+            if (!type.equals(c.getType())) continue;
+            boolean isUserCat = userId != null && userId.equals(c.getUserId());
+            if (!isUserCat && !c.isDefault()) continue;
+
+            String key = c.getName().toLowerCase(Locale.ROOT);
+            CategoryInfo existing = unique.get(key);
+            // User version overrides default, otherwise keep the first one
+            if (existing == null || (isUserCat && existing.isDefault())) unique.put(key, c);
+        }
+        return Collections.unmodifiableList(new ArrayList<>(unique.values()));
+    }
+}
@@ -0,0 +1,374 @@
+package com.ensias.fundlytest.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pure-Java store backed by primitive column arrays, one slot per transaction.
+ * Reports are a single loop over the columns with no per-row objects, which makes
+ * it usable as a fast test double and as a baseline for benchmarks on a plain JVM.
+ *
+ * Users, category ids and types are dictionary-encoded to ints. Rows are
+ * unordered: a delete moves the last row into the freed slot; lists sort the
+ * matching rows on each call. Not thread-safe.
+ */
+public class InMemoryStore implements TransactionStore, CategoryStore {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[] userIdx = new int[INITIAL_CAPACITY];
+    private long[] dateMillis = new long[INITIAL_CAPACITY];
+    private long[] amountMinor = new long[INITIAL_CAPACITY]; // at Money.DEFAULT_SCALE
+    private int[] categoryIdx = new int[INITIAL_CAPACITY];
+    private int[] typeIdx = new int[INITIAL_CAPACITY];
+    private String[] notes = new String[INITIAL_CAPACITY];
+    private int[] colors = new int[INITIAL_CAPACITY];
+    private String[] iconNames = new String[INITIAL_CAPACITY];
+    private int size;
+
+    private final Map<String, Integer> rowById = new HashMap<>();
+    private final Dictionary users = new Dictionary();
+    private final Dictionary categoryIds = new Dictionary();
+    private final Dictionary types = new Dictionary();
+
+    private final Map<String, CategoryInfo> categories = new LinkedHashMap<>();
+
+    public int size() {
+        return size;
+    }
+
+    // ============ TRANSACTIONS ============
+
+    @Override
+    public void addTransaction(String id, String userId, long amountMinor, String categoryId,
+                               String type, String note, Date date, int color, String iconName) {
+        if (rowById.containsKey(id)) throw new IllegalArgumentException("Duplicate transaction id " + id);
+        ensureCapacity(size + 1);
+
+        int row = size++;
+        ids[row] = id;
+        userIdx[row] = users.intern(userId);
+        rowById.put(id, row);
+        setRow(row, amountMinor, categoryId, type, note, date, color, iconName);
+    }
+
+    @Override
+    public void updateTransaction(String transactionId, long amountMinor, String categoryId,
+                                  String type, String note, Date date, int color, String iconName) {
+        Integer row = rowById.get(transactionId);
+        if (row != null) setRow(row, amountMinor, categoryId, type, note, date, color, iconName);
+    }
+
+    private void setRow(int row, long amount, String categoryId, String type, String note,
+                        Date date, int color, String iconName) {
+        dateMillis[row] = date != null ? date.getTime() : NO_DATE;
+        amountMinor[row] = amount;
+        categoryIdx[row] = categoryIds.intern(categoryId);
+        typeIdx[row] = types.intern(type);
+        notes[row] = note;
+        colors[row] = color;
+        iconNames[row] = iconName;
+    }
+
+    @Override
+    public void deleteTransaction(String transactionId) {
+        Integer row = rowById.remove(transactionId);
+        if (row == null) return;
+
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            userIdx[row] = userIdx[last];
+            dateMillis[row] = dateMillis[last];
+            amountMinor[row] = amountMinor[last];
+            categoryIdx[row] = categoryIdx[last];
+            typeIdx[row] = typeIdx[last];
+            notes[row] = notes[last];
+            colors[row] = colors[last];
+            iconNames[row] = iconNames[last];
+            rowById.put(ids[row], row);
+        }
+        ids[last] = null;
+        notes[last] = null;
+        iconNames[last] = null;
+    }
+
+    @Override
+    public int deleteTransactions(Collection<String> transactionIds) {
+        int deleted = 0;
+        for (String id : transactionIds) {
+            if (rowById.containsKey(id)) {
+                deleteTransaction(id);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public int addTransactions(Collection<TransactionInfo> transactions, int chunkSize) {
+        requirePositive(chunkSize);
+        for (TransactionInfo t : transactions) {
+            String id = t.getId() != null ? t.getId() : UUID.randomUUID().toString();
+            addTransaction(id, t.getUserId(), t.getAmountMinor(), t.getCategoryId(), t.getType(),
+                    t.getNote(), t.getDate(), t.getColor(), t.getIconName());
+        }
+        return transactions.size();
+    }
+
+    @Override
+    public int updateTransactions(Collection<TransactionInfo> transactions, int chunkSize) {
+        requirePositive(chunkSize);
+        int updated = 0;
+        for (TransactionInfo t : transactions) {
+            Integer row = rowById.get(t.getId());
+            if (row == null) continue;
+            setRow(row, t.getAmountMinor(), t.getCategoryId(), t.getType(), t.getNote(), t.getDate(),
+                    t.getColor(), t.getIconName());
+            updated++;
+        }
+        return updated;
+    }
+
+    @Override
+    public int deleteTransactions(Collection<String> transactionIds, int chunkSize) {
+        requirePositive(chunkSize);
+        return deleteTransactions(transactionIds);
+    }
+
+    // Same check as the chunked Realm writes, though everything here is one step
+    private static void requirePositive(int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be > 0");
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= ids.length) return;
+        int capacity = Math.max(needed, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        userIdx = Arrays.copyOf(userIdx, capacity);
+        dateMillis = Arrays.copyOf(dateMillis, capacity);
+        amountMinor = Arrays.copyOf(amountMinor, capacity);
+        categoryIdx = Arrays.copyOf(categoryIdx, capacity);
+        typeIdx = Arrays.copyOf(typeIdx, capacity);
+        notes = Arrays.copyOf(notes, capacity);
+        colors = Arrays.copyOf(colors, capacity);
+        iconNames = Arrays.copyOf(iconNames, capacity);
+    }
+
+    // ============ LISTS ============
+
+    @Override
+    public List<TransactionInfo> getTransactions(String userId, String type, Date startDate, Date endDate) {
+        List<TransactionInfo> result = new ArrayList<>();
+        int user = users.find(userId);
+        int typeCode = type != null ? types.find(type) : -1;
+        if (user < 0 || (type != null && typeCode < 0)) return result;
+
+        boolean windowed = startDate != null && endDate != null;
+        long from = windowed ? startDate.getTime() : Long.MIN_VALUE;
+        long to = windowed ? endDate.getTime() : Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (userIdx[i] != user || dateMillis[i] == NO_DATE) continue;
+            if (type != null && typeIdx[i] != typeCode) continue;
+            if (dateMillis[i] < from || dateMillis[i] >= to) continue;
+            result.add(info(i));
+        }
+        result.sort(TransactionInfo.NEWEST_FIRST);
+        return result;
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(String userId, String type, Date startDate, Date endDate,
+                                              TransactionPage.Cursor after, int pageSize) {
+        TransactionPage.requirePageSize(pageSize);
+        List<TransactionInfo> rows = getTransactions(userId, type, startDate, endDate);
+        int first = 0;
+        if (after != null) {
+            while (first < rows.size() && !after.precedes(rows.get(first).getDate(), rows.get(first).getId())) {
+                first++;
+            }
+        }
+        return TransactionPage.of(rows.subList(first, Math.min(rows.size(), first + pageSize + 1)), pageSize);
+    }
+
+    private TransactionInfo info(int row) {
+        return new TransactionInfo(ids[row], users.get(userIdx[row]), amountMinor[row],
+                categoryIds.get(categoryIdx[row]), types.get(typeIdx[row]), notes[row],
+                dateMillis[row] != NO_DATE ? new Date(dateMillis[row]) : null, colors[row], iconNames[row]);
+    }
+
+    // ============ REPORTS ============
+
+    @Override
+    public long getTotalExpenses(String userId, Date startDate, Date endDate) {
+        return total(userId, TransactionInfo.EXPENSE, startDate, endDate);
+    }
+
+    @Override
+    public long getTotalIncome(String userId, Date startDate, Date endDate) {
+        return total(userId, TransactionInfo.INCOME, startDate, endDate);
+    }
+
+    private long total(String userId, String type, Date startDate, Date endDate) {
+        int user = users.find(userId);
+        int typeCode = types.find(type);
+        if (user < 0 || typeCode < 0) return 0;
+
+        long from = startDate.getTime();
+        long to = endDate.getTime();
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            if (userIdx[i] == user && typeIdx[i] == typeCode && dateMillis[i] >= from && dateMillis[i] < to) {
+                sum += amountMinor[i];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public Map<String, Long> getCategoryBreakdown(String userId, Date startDate, Date endDate, String type) {
+        int user = users.find(userId);
+        int typeCode = TransactionInfo.isReportedType(type) ? types.find(type) : -1;
+        if (user < 0 || typeCode < 0) return new HashMap<>();
+
+        long from = startDate.getTime();
+        long to = endDate.getTime();
+        long[] sums = new long[categoryIds.size()];
+        boolean[] seen = new boolean[sums.length];
+        for (int i = 0; i < size; i++) {
+            if (userIdx[i] == user && typeIdx[i] == typeCode && dateMillis[i] >= from && dateMillis[i] < to) {
+                sums[categoryIdx[i]] += amountMinor[i];
+                seen[categoryIdx[i]] = true;
+            }
+        }
+        return toBreakdown(sums, seen);
+    }
+
+    @Override
+    public PeriodSummary getPeriodSummary(String userId, Date startDate, Date endDate) {
+        int user = users.find(userId);
+        int incomeCode = types.find(TransactionInfo.INCOME);
+        int expenseCode = types.find(TransactionInfo.EXPENSE);
+        int categoryCount = categoryIds.size();
+        long[] income = new long[categoryCount];
+        long[] expense = new long[categoryCount];
+        boolean[] seenIncome = new boolean[categoryCount];
+        boolean[] seenExpense = new boolean[categoryCount];
+        long totalIncome = 0;
+        long totalExpenses = 0;
+        long count = 0;
+
+        long from = startDate.getTime();
+        long to = endDate.getTime();
+        for (int i = 0; user >= 0 && i < size; i++) {
+            if (userIdx[i] != user || dateMillis[i] < from || dateMillis[i] >= to) continue;
+            int category = categoryIdx[i];
+            if (typeIdx[i] == incomeCode) {
+                totalIncome += amountMinor[i];
+                income[category] += amountMinor[i];
+                seenIncome[category] = true;
+            } else if (typeIdx[i] == expenseCode) {
+                totalExpenses += amountMinor[i];
+                expense[category] += amountMinor[i];
+                seenExpense[category] = true;
+            } else {
+                continue;
+            }
+            count++;
+        }
+
+        return new PeriodSummary(totalIncome, totalExpenses, count,
+                toBreakdown(income, seenIncome), toBreakdown(expense, seenExpense));
+    }
+
+    private Map<String, Long> toBreakdown(long[] sums, boolean[] seen) {
+        Map<String, Long> breakdown = new HashMap<>();
+        for (int c = 0; c < sums.length; c++) {
+            if (seen[c]) breakdown.put(categoryIds.get(c), sums[c]);
+        }
+        return breakdown;
+    }
+
+    // ============ CATEGORIES ============
+
+    @Override
+    public void addCategory(String id, String userId, String name, String type,
+                            String iconName, int color, boolean isCustom) {
+        categories.put(id, new CategoryInfo(id, userId, name, type, iconName, color, isCustom, 999));
+    }
+
+    /** Adds a category with an explicit display order, as the app does for its seeded defaults. */
+    public void putCategory(CategoryInfo category) {
+        categories.put(category.getId(), category);
+    }
+
+    @Override
+    public void updateCategory(String categoryId, String name, String iconName, int color) {
+        CategoryInfo c = categories.get(categoryId);
+        if (c == null) return;
+        categories.put(categoryId, new CategoryInfo(c.getId(), c.getUserId(), name, c.getType(),
+                iconName, color, c.isCustom(), c.getOrder()));
+    }
+
+    @Override
+    public void deleteCategory(String categoryId) {
+        categories.remove(categoryId);
+    }
+
+    @Override
+    public CategoryInfo getCategoryInfo(String categoryId) {
+        return categories.get(categoryId);
+    }
+
+    @Override
+    public List<CategoryInfo> getCategoryInfos(String userId) {
+        List<CategoryInfo> result = new ArrayList<>();
+        for (CategoryInfo c : categories.values()) {
+            if (c.isDefault() || (userId != null && userId.equals(c.getUserId()))) result.add(c);
+        }
+        result.sort(Comparator.comparingInt(CategoryInfo::getOrder));
+        return result;
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+
+    /** String <-> dense int id. */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int intern(String value) {
+            Integer code = codes.get(value);
+            if (code != null) return code;
+            codes.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        int find(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : -1;
+        }
+
+        String get(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ensias.fundlytest.core;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are stored and summed as long minor units
+ * (centimes for DH), so totals are exact whatever order they are added in.
+ */
+public final class Money {
+
+    /** Number of decimal digits of the minor unit, 2 for DH. */
+    public static final int DEFAULT_SCALE = 2;
+
+    private Money() {
+    }
+
+    /** Parses user input such as "12.5" into minor units at the default scale. */
+    public static long parseMinor(String text) {
+        return new BigDecimal(text.trim())
+                .setScale(DEFAULT_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /** Converts a legacy double amount (major units) into minor units at the default scale. */
+    public static long fromMajor(double amount) {
+        return BigDecimal.valueOf(amount)
+                .setScale(DEFAULT_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /** Rescales an amount stored with the given scale to the default scale. */
+    public static long normalize(long minor, int scale) {
+        if (scale == DEFAULT_SCALE) return minor;
+        return BigDecimal.valueOf(minor, scale)
+                .setScale(DEFAULT_SCALE, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /** For display only: never sum the returned doubles. */
+    public static double toMajor(long minor) {
+        return toMajor(minor, DEFAULT_SCALE);
+    }
+
+    public static double toMajor(long minor, int scale) {
+        return BigDecimal.valueOf(minor, scale).doubleValue();
+    }
+
+    /** Plain decimal text, e.g. 1250 at scale 2 -> "12.50". */
+    public static String toPlainString(long minor, int scale) {
+        return BigDecimal.valueOf(minor, scale).toPlainString();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ensias.fundlytest.core;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable totals for one user over one date window, built in a single pass
+ * by {@link TransactionStore#getPeriodSummary}. Amounts are minor units at
+ * {@link Money#DEFAULT_SCALE}.
+ */
+public final class PeriodSummary {
+
+    private final long totalIncome;
+    private final long totalExpenses;
+    private final long transactionCount;
+    private final Map<String, Long> incomeByCategory;
+    private final Map<String, Long> expenseByCategory;
+
+    public PeriodSummary(long totalIncome, long totalExpenses, long transactionCount,
+                  Map<String, Long> incomeByCategory, Map<String, Long> expenseByCategory) {
+        this.totalIncome = totalIncome;
+        this.totalExpenses = totalExpenses;
+        this.transactionCount = transactionCount;
+        this.incomeByCategory = Collections.unmodifiableMap(new HashMap<>(incomeByCategory));
+        this.expenseByCategory = Collections.unmodifiableMap(new HashMap<>(expenseByCategory));
+    }
+
+    public long getTotalIncome() { return totalIncome; }
+
+    public long getTotalExpenses() { return totalExpenses; }
+
+    public long getBalance() { return totalIncome - totalExpenses; }
+
+    public long getTransactionCount() { return transactionCount; }
+
+    /** @param type "income" or "expense" */
+    public long getTotal(String type) {
+        return "income".equals(type) ? totalIncome : totalExpenses;
+    }
+
+    /** Sums per category id for the given type ("income" or "expense"). */
+    public Map<String, Long> getBreakdown(String type) {
+        return "income".equals(type) ? incomeByCategory : expenseByCategory;
+    }
+}
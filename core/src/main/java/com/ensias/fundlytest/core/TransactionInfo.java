@@ -0,0 +1,69 @@
+package com.ensias.fundlytest.core;
+
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * Immutable copy of a transaction. Safe to share across threads and to keep
+ * after the store it was read from is closed. The amount is in minor units at
+ * {@link Money#DEFAULT_SCALE}.
+ */
+public final class TransactionInfo {
+
+    public static final String INCOME = "income";
+    public static final String EXPENSE = "expense";
+
+    /** History order: date descending, then id descending to break ties. */
+    public static final Comparator<TransactionInfo> NEWEST_FIRST = (a, b) -> {
+        int byDate = Long.compare(b.dateMillis, a.dateMillis);
+        return byDate != 0 ? byDate : b.id.compareTo(a.id);
+    };
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final String id;
+    private final String userId;
+    private final long amountMinor;
+    private final String categoryId;
+    private final String type;
+    private final String note;
+    private final long dateMillis;
+    private final int color;
+    private final String iconName;
+
+    public TransactionInfo(String id, String userId, long amountMinor, String categoryId, String type,
+                           String note, Date date, int color, String iconName) {
+        this.id = id;
+        this.userId = userId;
+        this.amountMinor = amountMinor;
+        this.categoryId = categoryId;
+        this.type = type;
+        this.note = note;
+        this.dateMillis = date != null ? date.getTime() : NO_DATE;
+        this.color = color;
+        this.iconName = iconName;
+    }
+
+    /** True for the two types reports count; rows of any other type are listed but never summed. */
+    public static boolean isReportedType(String type) {
+        return INCOME.equals(type) || EXPENSE.equals(type);
+    }
+
+    public String getId() { return id; }
+    public String getUserId() { return userId; }
+    public long getAmountMinor() { return amountMinor; }
+    public String getCategoryId() { return categoryId; }
+    public String getType() { return type; }
+    public String getNote() { return note; }
+    public int getColor() { return color; }
+    public String getIconName() { return iconName; }
+
+    /** A new Date each call; null for an undated row. */
+    public Date getDate() {
+        return dateMillis != NO_DATE ? new Date(dateMillis) : null;
+    }
+
+    public boolean isIncome() {
+        return INCOME.equals(type);
+    }
+}
@@ -0,0 +1,66 @@
+package com.ensias.fundlytest.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One page of transaction history in {@link TransactionInfo#NEWEST_FIRST} order,
+ * plus the keyset cursor to fetch the page after it.
+ */
+public final class TransactionPage {
+
+    /** Position after the last row of a page: (date, id), both compared descending. */
+    public static final class Cursor {
+        private final long dateMillis;
+        private final String id;
+
+        public Cursor(Date date, String id) {
+            this.dateMillis = date.getTime();
+            this.id = id;
+        }
+
+        public Date getDate() { return new Date(dateMillis); }
+        public String getId() { return id; }
+
+        /** True when the row comes after this cursor in history order. */
+        public boolean precedes(Date date, String rowId) {
+            long millis = date.getTime();
+            return millis < dateMillis || (millis == dateMillis && rowId.compareTo(id) < 0);
+        }
+    }
+
+    private final List<TransactionInfo> items;
+    private final Cursor nextCursor;
+
+    public TransactionPage(List<TransactionInfo> items, Cursor nextCursor) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * The first {@code pageSize} rows of {@code sorted} (in history order), with a cursor
+     * only if more rows follow: read one extra row to know.
+     */
+    public static TransactionPage of(List<TransactionInfo> sorted, int pageSize) {
+        requirePageSize(pageSize);
+        if (sorted.size() <= pageSize) return new TransactionPage(sorted, null);
+
+        List<TransactionInfo> items = sorted.subList(0, pageSize);
+        TransactionInfo last = items.get(pageSize - 1);
+        return new TransactionPage(items, new Cursor(last.getDate(), last.getId()));
+    }
+
+    /** Stores check this before reading anything: a page must hold at least one row. */
+    public static void requirePageSize(int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0, was " + pageSize);
+    }
+
+    public List<TransactionInfo> getItems() { return items; }
+
+    /** Null when this is the last page. */
+    public Cursor getNextCursor() { return nextCursor; }
+
+    public boolean hasMore() { return nextCursor != null; }
+}
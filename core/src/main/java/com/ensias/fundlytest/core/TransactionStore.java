@@ -0,0 +1,73 @@
+package com.ensias.fundlytest.core;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transaction writes, lists and reports, independent of the storage engine.
+ * Implemented by the app's Realm-backed DataManager and by {@link InMemoryStore}.
+ *
+ * Amounts are minor units at {@link Money#DEFAULT_SCALE}; ranges are [startDate, endDate).
+ * Reports only count "income" and "expense" rows: a row of any other type, or
+ * without a date, is stored and (if dated) listed, but is in no total, breakdown
+ * or transaction count.
+ */
+public interface TransactionStore extends AutoCloseable {
+
+    void addTransaction(String id, String userId, long amountMinor, String categoryId,
+                        String type, String note, Date date, int color, String iconName);
+
+    void updateTransaction(String transactionId, long amountMinor, String categoryId,
+                           String type, String note, Date date, int color, String iconName);
+
+    void deleteTransaction(String transactionId);
+
+    /** @return number of rows actually deleted */
+    int deleteTransactions(Collection<String> transactionIds);
+
+    /**
+     * Inserts the rows, generating an id where it is null, committing every
+     * {@code chunkSize} rows.
+     * @return number of rows inserted
+     */
+    int addTransactions(Collection<TransactionInfo> transactions, int chunkSize);
+
+    /**
+     * Applies each row's values to the stored row with the same id; the owner is
+     * never changed and unknown ids are ignored.
+     * @return number of rows updated
+     */
+    int updateTransactions(Collection<TransactionInfo> transactions, int chunkSize);
+
+    /** @return number of rows actually deleted */
+    int deleteTransactions(Collection<String> transactionIds, int chunkSize);
+
+    /**
+     * The user's dated rows in {@link TransactionInfo#NEWEST_FIRST} order. A null
+     * type means every type; null bounds mean no date window.
+     */
+    List<TransactionInfo> getTransactions(String userId, String type, Date startDate, Date endDate);
+
+    /**
+     * One page of {@link #getTransactions}, starting after {@code after} (null for
+     * the first page).
+     *
+     * @throws IllegalArgumentException if {@code pageSize} is not positive
+     */
+    TransactionPage getTransactionPage(String userId, String type, Date startDate, Date endDate,
+                                       TransactionPage.Cursor after, int pageSize);
+
+    long getTotalExpenses(String userId, Date startDate, Date endDate);
+
+    long getTotalIncome(String userId, Date startDate, Date endDate);
+
+    /** Sums per category id for one type ("income" or "expense"); empty for any other type. */
+    Map<String, Long> getCategoryBreakdown(String userId, Date startDate, Date endDate, String type);
+
+    PeriodSummary getPeriodSummary(String userId, Date startDate, Date endDate);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,254 @@
+package com.ensias.fundlytest.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ColumnarSnapshot} against a plain scan of the same rows. Aligned bounds
+ * exercise the day index, unaligned ones the row loop; both must give the same answers.
+ */
+public class ColumnarSnapshotTest {
+
+    private static final long HOUR = 3_600_000L;
+    // Has DST and a non-zero offset, so local midnights are not multiples of a day
+    private static final TimeZone ZONE = TimeZone.getTimeZone("Europe/Paris");
+    private static final String[] CATEGORIES = {"food", "rent", "fun", "salary", "gift"};
+
+    private TimeZone previousDefault;
+    private long start;
+
+    @Before
+    public void setUp() {
+        previousDefault = TimeZone.getDefault();
+        TimeZone.setDefault(ZONE);
+        start = midnight(2024, Calendar.JANUARY, 1);
+    }
+
+    @After
+    public void tearDown() {
+        TimeZone.setDefault(previousDefault);
+    }
+
+    @Test
+    public void randomRowsMatchBruteForceOnAlignedAndUnalignedRanges() {
+        Random random = new Random(7);
+        ColumnarSnapshot snapshot = new ColumnarSnapshot(4);
+        Map<String, Row> rows = new HashMap<>();
+
+        for (int i = 0; i < 2_000; i++) {
+            Row row = randomRow(random, "tx-" + i);
+            snapshot.put(row.id, row.date, row.amount, row.categoryId, row.isIncome);
+            rows.put(row.id, row);
+        }
+
+        assertEquals(rows.size(), snapshot.size());
+        assertMatches(snapshot, rows, random);
+    }
+
+    @Test
+    public void replacesAndRemovesKeepMatchingBruteForce() {
+        Random random = new Random(11);
+        ColumnarSnapshot snapshot = new ColumnarSnapshot();
+        Map<String, Row> rows = new HashMap<>();
+
+        for (int i = 0; i < 3_000; i++) {
+            String id = "tx-" + random.nextInt(400);
+            if (random.nextInt(4) == 0) {
+                assertEquals(rows.remove(id) != null, snapshot.remove(id));
+            } else {
+                // Same id again replaces the row, possibly moving it across dates and types
+                Row row = randomRow(random, id);
+                snapshot.put(row.id, row.date, row.amount, row.categoryId, row.isIncome);
+                rows.put(row.id, row);
+            }
+        }
+
+        assertEquals(rows.size(), snapshot.size());
+        assertMatches(snapshot, rows, random);
+    }
+
+    @Test
+    public void rowsOnABoundBelongToTheLaterPeriod() {
+        ColumnarSnapshot snapshot = new ColumnarSnapshot();
+        long day1 = midnight(2024, Calendar.MARCH, 1);
+        long day2 = midnight(2024, Calendar.MARCH, 2);
+        snapshot.put("a", day1, 100, "food", false);
+        snapshot.put("b", day2, 200, "food", false);
+        snapshot.put("c", day2 - 1, 400, "food", false);
+
+        assertEquals(500, snapshot.getTotal(false, day1, day2));
+        assertEquals(200, snapshot.getTotal(false, day2, day2 + 1));
+        assertEquals(100, snapshot.getTotal(false, day1, day2 - 1));
+
+        List<PeriodSummary> tabs = snapshot.getPeriodSummaries(new long[]{day1, day2, day2 + 86_400_000L});
+        assertEquals(2, tabs.get(0).getTransactionCount());
+        assertEquals(1, tabs.get(1).getTransactionCount());
+    }
+
+    @Test
+    public void defaultZoneChangeAfterBuildKeepsAnswersCorrect() {
+        Random random = new Random(19);
+        ColumnarSnapshot snapshot = new ColumnarSnapshot();
+        Map<String, Row> rows = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            Row row = randomRow(random, "tx-" + i);
+            snapshot.put(row.id, row.date, row.amount, row.categoryId, row.isIncome);
+            rows.put(row.id, row);
+        }
+
+        // The device moves: new midnights are not midnights of the zone the index was built in
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+        Calendar tokyo = Calendar.getInstance();
+        tokyo.clear();
+        tokyo.set(2024, Calendar.FEBRUARY, 1);
+        long[] bounds = new long[7];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = tokyo.getTimeInMillis();
+            tokyo.add(Calendar.DAY_OF_MONTH, 9);
+        }
+
+        List<PeriodSummary> summaries = snapshot.getPeriodSummaries(bounds);
+        for (int p = 0; p < summaries.size(); p++) {
+            assertSummary(rows, bounds[p], bounds[p + 1], summaries.get(p));
+        }
+        // Rows patched in after the change still land in the build zone's day buckets
+        Row late = new Row("late", bounds[1] + HOUR, 4_242, "food", false);
+        snapshot.put(late.id, late.date, late.amount, late.categoryId, late.isIncome);
+        rows.put(late.id, late);
+        assertMatches(snapshot, rows, random);
+    }
+
+    @Test
+    public void removeOfUnknownIdOrTwiceIsFalse() {
+        ColumnarSnapshot snapshot = new ColumnarSnapshot();
+        snapshot.put("a", start, 100, "food", false);
+
+        assertTrue(snapshot.remove("a"));
+        assertFalse(snapshot.remove("a"));
+        assertFalse(snapshot.remove("missing"));
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.getTotal(false, start, start + 86_400_000L));
+        assertTrue(snapshot.getBreakdown(false, start, start + 86_400_000L).isEmpty());
+    }
+
+    private void assertMatches(ColumnarSnapshot snapshot, Map<String, Row> rows, Random random) {
+        for (int q = 0; q < 200; q++) {
+            long from;
+            long to;
+            if (q % 2 == 0) {
+                int fromDay = random.nextInt(140) - 10;
+                from = dayStart(fromDay);
+                to = dayStart(fromDay + random.nextInt(40));
+            } else {
+                from = start + (long) (random.nextDouble() * 130 * 24 * HOUR) - 5 * 24 * HOUR;
+                to = from + (long) (random.nextDouble() * 30 * 24 * HOUR);
+            }
+
+            for (boolean isIncome : new boolean[]{true, false}) {
+                String label = (isIncome ? "income " : "expense ") + from + ".." + to;
+                assertEquals(label, total(rows, isIncome, from, to), snapshot.getTotal(isIncome, from, to));
+                assertEquals(label, breakdown(rows, isIncome, from, to), snapshot.getBreakdown(isIncome, from, to));
+            }
+            assertSummary(rows, from, to, snapshot.getPeriodSummary(from, to));
+        }
+
+        long[] alignedTabs = new long[7];
+        long[] unalignedTabs = new long[7];
+        for (int i = 0; i < 7; i++) {
+            alignedTabs[i] = dayStart(i * 17);
+            unalignedTabs[i] = alignedTabs[i] + 5 * HOUR + i;
+        }
+        for (long[] bounds : new long[][]{alignedTabs, unalignedTabs}) {
+            List<PeriodSummary> summaries = snapshot.getPeriodSummaries(bounds);
+            assertEquals(bounds.length - 1, summaries.size());
+            for (int p = 0; p < summaries.size(); p++) {
+                assertSummary(rows, bounds[p], bounds[p + 1], summaries.get(p));
+            }
+        }
+    }
+
+    private static void assertSummary(Map<String, Row> rows, long from, long to, PeriodSummary summary) {
+        String label = "summary " + from + ".." + to;
+        assertEquals(label, total(rows, true, from, to), summary.getTotalIncome());
+        assertEquals(label, total(rows, false, from, to), summary.getTotalExpenses());
+        assertEquals(label, count(rows, from, to), summary.getTransactionCount());
+        assertEquals(label, breakdown(rows, true, from, to), summary.getBreakdown("income"));
+        assertEquals(label, breakdown(rows, false, from, to), summary.getBreakdown("expense"));
+    }
+
+    private Row randomRow(Random random, String id) {
+        int day = random.nextInt(120);
+        // A third of the rows sit exactly on a local midnight, the edge of every aligned range
+        long date = random.nextInt(3) == 0
+                ? dayStart(day)
+                : dayStart(day) + (long) (random.nextDouble() * 24 * HOUR);
+        boolean isIncome = random.nextInt(5) == 0;
+        return new Row(id, date, 1 + random.nextInt(100_000),
+                CATEGORIES[random.nextInt(CATEGORIES.length)], isIncome);
+    }
+
+    /** Local midnight {@code days} after {@link #start}, across DST changes. */
+    private long dayStart(int days) {
+        Calendar cal = Calendar.getInstance(ZONE);
+        cal.setTimeInMillis(start);
+        cal.add(Calendar.DAY_OF_MONTH, days);
+        return cal.getTimeInMillis();
+    }
+
+    private static long midnight(int year, int month, int day) {
+        Calendar cal = Calendar.getInstance(ZONE);
+        cal.clear();
+        cal.set(year, month, day);
+        return cal.getTimeInMillis();
+    }
+
+    static long total(Map<String, Row> rows, boolean isIncome, long from, long to) {
+        long sum = 0;
+        for (Row r : rows.values()) {
+            if (r.isIncome == isIncome && r.date >= from && r.date < to) sum += r.amount;
+        }
+        return sum;
+    }
+
+    static long count(Map<String, Row> rows, long from, long to) {
+        long n = 0;
+        for (Row r : rows.values()) if (r.date >= from && r.date < to) n++;
+        return n;
+    }
+
+    static Map<String, Long> breakdown(Map<String, Row> rows, boolean isIncome, long from, long to) {
+        Map<String, Long> sums = new HashMap<>();
+        for (Row r : rows.values()) {
+            if (r.isIncome == isIncome && r.date >= from && r.date < to) sums.merge(r.categoryId, r.amount, Long::sum);
+        }
+        return sums;
+    }
+
+    static final class Row {
+        final String id;
+        final long date;
+        final long amount;
+        final String categoryId;
+        final boolean isIncome;
+
+        Row(String id, long date, long amount, String categoryId, boolean isIncome) {
+            this.id = id;
+            this.date = date;
+            this.amount = amount;
+            this.categoryId = categoryId;
+            this.isIncome = isIncome;
+        }
+    }
+}
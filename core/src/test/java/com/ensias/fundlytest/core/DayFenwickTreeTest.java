@@ -0,0 +1,84 @@
+package com.ensias.fundlytest.core;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DayFenwickTreeTest {
+
+    @Test
+    public void emptyTreeSumsToZero() {
+        DayFenwickTree tree = new DayFenwickTree();
+
+        assertEquals(0, tree.sum(-100, 100));
+        assertEquals(0, tree.sum(5, 5));
+    }
+
+    @Test
+    public void sumIsHalfOpenAndEmptyWhenReversed() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(10, 1);
+        tree.add(11, 20);
+        tree.add(12, 300);
+
+        assertEquals(321, tree.sum(10, 13));
+        assertEquals(21, tree.sum(10, 12));
+        assertEquals(320, tree.sum(11, 1_000));
+        assertEquals(321, tree.sum(-1_000, 1_000));
+        assertEquals(0, tree.sum(12, 11));
+        assertEquals(0, tree.sum(13, 20));
+    }
+
+    @Test
+    public void growsInBothDirectionsAndKeepsEarlierValues() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(20_000, 5);
+        // Far past the 64 initial days on each side, so every add re-lays the tree
+        tree.add(20_500, 7);
+        tree.add(19_000, 11);
+        tree.add(25_000, 13);
+        tree.add(10_000, 17);
+
+        assertEquals(53, tree.sum(0, 30_000));
+        assertEquals(5, tree.sum(20_000, 20_001));
+        assertEquals(12, tree.sum(20_000, 20_501));
+        assertEquals(11 + 17, tree.sum(0, 20_000));
+        assertEquals(13, tree.sum(20_501, 30_000));
+    }
+
+    @Test
+    public void randomAddsMatchPlainArray() {
+        Random random = new Random(3);
+        DayFenwickTree tree = new DayFenwickTree();
+        int base = 19_000;
+        long[] plain = new long[4_000];
+
+        for (int i = 0; i < 5_000; i++) {
+            int offset = random.nextInt(plain.length);
+            long delta = random.nextInt(2_001) - 1_000;
+            tree.add(base + offset, delta);
+            plain[offset] += delta;
+
+            if (i % 50 == 0) {
+                int from = random.nextInt(plain.length);
+                int to = from + random.nextInt(plain.length - from + 1);
+                long expected = 0;
+                for (int d = from; d < to; d++) expected += plain[d];
+                assertEquals(expected, tree.sum(base + from, base + to));
+            }
+        }
+    }
+
+    @Test
+    public void negativeDeltasCancelOut() {
+        DayFenwickTree tree = new DayFenwickTree();
+        tree.add(-3, 40);
+        tree.add(400, 60);
+        tree.add(-3, -40);
+        tree.add(400, -60);
+
+        assertEquals(0, tree.sum(-1_000, 1_000));
+    }
+}
@@ -0,0 +1,86 @@
+package com.ensias.fundlytest.core;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DayTotalsIndexTest {
+
+    private static final int DAY = 20_000;
+
+    @Test
+    public void totalsAndCountsAreKeptPerType() {
+        DayTotalsIndex index = new DayTotalsIndex(false);
+        index.add(DAY, false, "food", 1_000, 1);
+        index.add(DAY + 1, false, "rent", 2_500, 1);
+        index.add(DAY + 1, true, "salary", 9_000, 1);
+
+        assertEquals(3_500, index.getTotal(false, DAY, DAY + 2));
+        assertEquals(1_000, index.getTotal(false, DAY, DAY + 1));
+        assertEquals(9_000, index.getTotal(true, DAY, DAY + 2));
+        assertEquals(2, index.getCount(false, DAY, DAY + 2));
+        assertEquals(1, index.getCount(true, DAY, DAY + 2));
+        assertFalse(index.tracksCategories());
+    }
+
+    @Test
+    public void removingARowTakesItOutOfTotalsAndBreakdown() {
+        DayTotalsIndex index = new DayTotalsIndex(true);
+        index.add(DAY, false, "food", 1_000, 1);
+        index.add(DAY, false, "rent", 700, 1);
+        index.add(DAY, false, "rent", -700, -1);
+
+        assertEquals(1_000, index.getTotal(false, DAY, DAY + 1));
+        assertEquals(1, index.getCount(false, DAY, DAY + 1));
+        assertEquals(Collections.singletonMap("food", 1_000L), index.getBreakdown(false, DAY, DAY + 1));
+    }
+
+    @Test
+    public void breakdownListsOnlyCategoriesWithRowsInRange() {
+        DayTotalsIndex index = new DayTotalsIndex(true);
+        index.add(DAY, false, "food", 1_000, 1);
+        index.add(DAY + 5, false, "fun", 300, 1);
+        index.add(DAY + 1, true, "salary", 9_000, 1);
+        // A zero amount still counts as a row, so its category is listed
+        index.add(DAY + 1, false, "gift", 0, 1);
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("food", 1_000L);
+        expected.put("gift", 0L);
+        assertEquals(expected, index.getBreakdown(false, DAY, DAY + 5));
+        assertEquals(Collections.singletonMap("salary", 9_000L), index.getBreakdown(true, DAY, DAY + 5));
+        assertTrue(index.getBreakdown(true, DAY + 2, DAY + 10).isEmpty());
+    }
+
+    @Test
+    public void growingAcrossYearsKeepsEveryDay() {
+        DayTotalsIndex index = new DayTotalsIndex(true);
+        long expected = 0;
+        // Spread over ~10 years either side of DAY, added out of order
+        for (int i = 0; i < 200; i++) {
+            int day = DAY + ((i * 7_919) % 7_300) - 3_650;
+            index.add(day, false, "food", i + 1, 1);
+            expected += i + 1;
+        }
+        index.add(DAY - 20_000, false, "food", 5, 1);
+        index.add(DAY + 20_000, false, "rent", 7, 1);
+
+        assertEquals(expected + 12, index.getTotal(false, DAY - 30_000, DAY + 30_000));
+        assertEquals(202, index.getCount(false, DAY - 30_000, DAY + 30_000));
+        assertEquals(5, index.getTotal(false, DAY - 20_000, DAY - 19_999));
+        assertEquals(Long.valueOf(7), index.getBreakdown(false, DAY + 1, DAY + 30_000).get("rent"));
+        assertEquals(Long.valueOf(expected + 5),
+                index.getBreakdown(false, DAY - 30_000, DAY + 30_000).get("food"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void breakdownNeedsPerCategoryTracking() {
+        new DayTotalsIndex(false).getBreakdown(false, DAY, DAY + 1);
+    }
+}
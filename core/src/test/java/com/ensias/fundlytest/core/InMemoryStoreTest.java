@@ -0,0 +1,32 @@
+package com.ensias.fundlytest.core;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class InMemoryStoreTest extends TransactionStoreContractTest {
+
+    @Override
+    protected TransactionStore newStore() {
+        return new InMemoryStore();
+    }
+
+    @Test
+    public void deleteKeepsMovedRowAddressable() {
+        InMemoryStore store = new InMemoryStore();
+        for (int i = 0; i < 300; i++) {
+            store.addTransaction("tx-" + i, USER, 1, "food", "expense", null, day(i % 7), 0, null);
+        }
+
+        // Deleting from the front moves the last row into the freed slot each time
+        for (int i = 0; i < 100; i++) store.deleteTransaction("tx-" + i);
+        store.updateTransaction("tx-299", 50, "food", "expense", null, day(0), 0, null);
+
+        assertEquals(200, store.size());
+        assertEquals(199 + 50, store.getTotalExpenses(USER, day(0), day(7)));
+        List<TransactionInfo> rows = store.getTransactions(USER, null, day(0), day(1));
+        assertEquals("tx-299", rows.get(0).getId());
+    }
+}
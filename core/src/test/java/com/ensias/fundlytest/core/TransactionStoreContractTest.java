@@ -0,0 +1,295 @@
+package com.ensias.fundlytest.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Behaviour every {@link TransactionStore} must share. Subclasses supply the
+ * store; the app's Realm-backed one can run the same checks on a device.
+ */
+public abstract class TransactionStoreContractTest {
+
+    protected static final String USER = "user-1";
+    protected static final String OTHER_USER = "user-2";
+    private static final long DAY = 86_400_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private TransactionStore store;
+
+    protected abstract TransactionStore newStore();
+
+    @Before
+    public void setUp() {
+        store = newStore();
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void totalsUseHalfOpenRange() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("b", USER, 2500, "food", "expense", day(1));
+        add("c", USER, 700, "rent", "expense", day(2));
+        add("d", USER, 9000, "salary", "income", day(1));
+
+        assertEquals(3500, store.getTotalExpenses(USER, day(0), day(2)));
+        assertEquals(4200, store.getTotalExpenses(USER, day(0), day(3)));
+        assertEquals(9000, store.getTotalIncome(USER, day(0), day(3)));
+        assertEquals(0, store.getTotalIncome(USER, day(2), day(3)));
+    }
+
+    @Test
+    public void breakdownAndSummaryAgreeWithTotals() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("b", USER, 2500, "food", "expense", day(1));
+        add("c", USER, 700, "rent", "expense", day(2));
+        add("d", USER, 9000, "salary", "income", day(1));
+
+        Map<String, Long> expenses = store.getCategoryBreakdown(USER, day(0), day(3), "expense");
+        assertEquals(2, expenses.size());
+        assertEquals(Long.valueOf(3500), expenses.get("food"));
+        assertEquals(Long.valueOf(700), expenses.get("rent"));
+
+        PeriodSummary summary = store.getPeriodSummary(USER, day(0), day(3));
+        assertEquals(9000, summary.getTotalIncome());
+        assertEquals(4200, summary.getTotalExpenses());
+        assertEquals(4, summary.getTransactionCount());
+        assertEquals(expenses, summary.getBreakdown("expense"));
+        assertEquals(Collections.singletonMap("salary", 9000L), summary.getBreakdown("income"));
+    }
+
+    @Test
+    public void otherUsersAreInvisible() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("b", OTHER_USER, 5000, "food", "expense", day(0));
+
+        assertEquals(1000, store.getTotalExpenses(USER, day(0), day(1)));
+        assertEquals(1, store.getPeriodSummary(USER, day(0), day(1)).getTransactionCount());
+        assertEquals(1, store.getTransactions(USER, null, null, null).size());
+        assertEquals(0, store.getTotalExpenses("nobody", day(0), day(1)));
+        assertTrue(store.getTransactions("nobody", null, null, null).isEmpty());
+    }
+
+    @Test
+    public void updateMovesRowAcrossTypesCategoriesAndDates() {
+        add("a", USER, 1000, "food", "expense", day(0));
+
+        store.updateTransaction("a", 4000, "bonus", "income", "note", day(5), 0, "ic_work");
+
+        assertEquals(0, store.getTotalExpenses(USER, day(0), day(10)));
+        assertEquals(4000, store.getTotalIncome(USER, day(5), day(6)));
+        assertEquals(Collections.singletonMap("bonus", 4000L),
+                store.getCategoryBreakdown(USER, day(0), day(10), "income"));
+
+        TransactionInfo row = store.getTransactions(USER, null, null, null).get(0);
+        assertEquals("a", row.getId());
+        assertEquals(USER, row.getUserId());
+        assertEquals("note", row.getNote());
+        assertEquals("ic_work", row.getIconName());
+        assertEquals(day(5), row.getDate());
+    }
+
+    @Test
+    public void updateOfUnknownIdIsIgnored() {
+        add("a", USER, 1000, "food", "expense", day(0));
+
+        store.updateTransaction("missing", 4000, "food", "expense", null, day(0), 0, null);
+
+        assertEquals(1000, store.getTotalExpenses(USER, day(0), day(1)));
+        assertEquals(1, store.getTransactions(USER, null, null, null).size());
+    }
+
+    @Test
+    public void deletesCountOnlyExistingRows() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("b", USER, 2000, "food", "expense", day(0));
+        add("c", USER, 3000, "food", "expense", day(0));
+
+        store.deleteTransaction("a");
+        store.deleteTransaction("a");
+        assertEquals(1, store.deleteTransactions(Arrays.asList("b", "missing")));
+        assertEquals(3000, store.getTotalExpenses(USER, day(0), day(1)));
+        assertEquals(1, store.deleteTransactions(Arrays.asList("c", "b"), 1));
+        assertEquals(0, store.getTotalExpenses(USER, day(0), day(1)));
+        assertTrue(store.getTransactions(USER, null, null, null).isEmpty());
+    }
+
+    @Test
+    public void batchAddGeneratesMissingIds() {
+        List<TransactionInfo> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            batch.add(new TransactionInfo(i % 2 == 0 ? null : "id-" + i, USER, 100, "food", "expense",
+                    null, day(i), 0, null));
+        }
+
+        assertEquals(7, store.addTransactions(batch, 3));
+
+        List<TransactionInfo> rows = store.getTransactions(USER, null, null, null);
+        assertEquals(7, rows.size());
+        Set<String> ids = new HashSet<>();
+        for (TransactionInfo row : rows) {
+            assertNotNull(row.getId());
+            ids.add(row.getId());
+        }
+        assertEquals(7, ids.size());
+        assertTrue(ids.contains("id-3"));
+        assertEquals(700, store.getTotalExpenses(USER, day(0), day(7)));
+    }
+
+    @Test
+    public void batchUpdateMatchesByIdAndKeepsOwner() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("b", USER, 2000, "food", "expense", day(0));
+
+        int updated = store.updateTransactions(Arrays.asList(
+                new TransactionInfo("a", OTHER_USER, 1500, "food", "expense", null, day(0), 0, null),
+                new TransactionInfo("missing", USER, 1, "food", "expense", null, day(0), 0, null)), 1);
+
+        assertEquals(1, updated);
+        assertEquals(3500, store.getTotalExpenses(USER, day(0), day(1)));
+        assertEquals(0, store.getTotalExpenses(OTHER_USER, day(0), day(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void batchRejectsNonPositiveChunkSize() {
+        store.addTransactions(Collections.singletonList(
+                new TransactionInfo("a", USER, 1, "food", "expense", null, day(0), 0, null)), 0);
+    }
+
+    @Test
+    public void unknownTypeIsListedButNeverReported() {
+        add("a", USER, 1000, "food", "expense", day(0));
+        add("t", USER, 5000, "savings", "transfer", day(0));
+
+        assertEquals(1000, store.getTotalExpenses(USER, day(0), day(1)));
+        assertEquals(0, store.getTotalIncome(USER, day(0), day(1)));
+        assertTrue(store.getCategoryBreakdown(USER, day(0), day(1), "transfer").isEmpty());
+        assertFalse(store.getCategoryBreakdown(USER, day(0), day(1), "expense").containsKey("savings"));
+
+        PeriodSummary summary = store.getPeriodSummary(USER, day(0), day(1));
+        assertEquals(1, summary.getTransactionCount());
+        assertEquals(1000, summary.getTotalExpenses());
+        assertEquals(0, summary.getTotalIncome());
+
+        assertEquals(2, store.getTransactions(USER, null, day(0), day(1)).size());
+        List<TransactionInfo> transfers = store.getTransactions(USER, "transfer", null, null);
+        assertEquals(1, transfers.size());
+        assertEquals("t", transfers.get(0).getId());
+    }
+
+    @Test
+    public void undatedRowIsStoredButNotListedOrReported() {
+        add("a", USER, 1000, "food", "expense", null);
+        add("b", USER, 2000, "food", "expense", day(0));
+
+        assertEquals(2000, store.getTotalExpenses(USER, new Date(Long.MIN_VALUE + 1), day(100)));
+        assertEquals(1, store.getTransactions(USER, null, null, null).size());
+
+        store.updateTransaction("a", 1000, "food", "expense", null, day(0), 0, null);
+        assertEquals(3000, store.getTotalExpenses(USER, day(0), day(1)));
+    }
+
+    @Test
+    public void listsFilterAndSortNewestFirstWithIdTieBreak() {
+        add("a", USER, 1, "food", "expense", day(1));
+        add("c", USER, 1, "food", "expense", day(1));
+        add("b", USER, 1, "salary", "income", day(1));
+        add("d", USER, 1, "food", "expense", day(3));
+        add("e", USER, 1, "food", "expense", day(0));
+
+        assertEquals(Arrays.asList("d", "c", "b", "a", "e"), ids(store.getTransactions(USER, null, null, null)));
+        assertEquals(Arrays.asList("c", "b", "a"), ids(store.getTransactions(USER, null, day(1), day(3))));
+        assertEquals(Arrays.asList("d", "c", "a", "e"), ids(store.getTransactions(USER, "expense", null, null)));
+        assertEquals(Collections.singletonList("b"), ids(store.getTransactions(USER, "income", day(0), day(2))));
+    }
+
+    @Test
+    public void pagesWalkHistoryWithoutGapsOrDuplicates() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            // Four rows share each date, so pages cut through date groups
+            add(String.format("tx-%02d", i), USER, 100, "food", "expense", day(i / 4));
+        }
+        expected.addAll(ids(store.getTransactions(USER, null, null, null)));
+
+        List<String> walked = new ArrayList<>();
+        TransactionPage.Cursor cursor = null;
+        int pages = 0;
+        do {
+            TransactionPage page = store.getTransactionPage(USER, null, null, null, cursor, 3);
+            walked.addAll(ids(page.getItems()));
+            cursor = page.getNextCursor();
+            pages++;
+            assertTrue(page.getItems().size() <= 3);
+            assertEquals(page.hasMore(), cursor != null);
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    public void exactlyFullLastPageHasNoCursor() {
+        for (int i = 0; i < 4; i++) add("tx-" + i, USER, 100, "food", "expense", day(i));
+
+        TransactionPage first = store.getTransactionPage(USER, null, null, null, null, 2);
+        TransactionPage second = store.getTransactionPage(USER, null, null, null, first.getNextCursor(), 2);
+
+        assertTrue(first.hasMore());
+        assertEquals(2, second.getItems().size());
+        assertFalse(second.hasMore());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    public void pagesRespectTypeAndWindow() {
+        for (int i = 0; i < 6; i++) {
+            add("tx-" + i, USER, 100, "food", i % 2 == 0 ? "expense" : "income", day(i));
+        }
+
+        TransactionPage page = store.getTransactionPage(USER, "expense", day(1), day(6), null, 10);
+
+        assertEquals(Arrays.asList("tx-4", "tx-2"), ids(page.getItems()));
+        assertFalse(page.hasMore());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageSizeMustBePositive() {
+        add("a", USER, 100, "food", "expense", day(0));
+
+        store.getTransactionPage(USER, null, null, null, null, 0);
+    }
+
+    protected void add(String id, String userId, long amountMinor, String categoryId, String type, Date date) {
+        store.addTransaction(id, userId, amountMinor, categoryId, type, null, date, 0, null);
+    }
+
+    protected static Date day(int n) {
+        return new Date(T0 + n * DAY);
+    }
+
+    private static List<String> ids(List<TransactionInfo> rows) {
+        List<String> ids = new ArrayList<>(rows.size());
+        for (TransactionInfo row : rows) ids.add(row.getId());
+        return ids;
+    }
+}